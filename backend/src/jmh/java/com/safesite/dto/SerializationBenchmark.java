@@ -0,0 +1,62 @@
+package com.safesite.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.safesite.service.BenchmarkFixtures;
+import com.safesite.service.ObservationMapper;
+import com.safesite.service.RecommendationCatalog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization of listing payloads, configured like Spring Boot's ObjectMapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({ "10", "1000" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ObservationResponse> observations;
+    private List<ProjectResponse> projects;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        RecommendationCatalog catalog = BenchmarkFixtures.recommendationCatalog();
+        ObservationMapper mapper = new ObservationMapper(catalog);
+        observations = BenchmarkFixtures.observations(size, catalog).stream()
+                .map(mapper::toResponse)
+                .collect(Collectors.toList());
+
+        projects = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            List<SiteResponse> sites = List.of(
+                    new SiteResponse(i * 2, "Site " + i + "A", "Gare souterraine", i, "Projet " + i),
+                    new SiteResponse(i * 2 + 1, "Site " + i + "B", "Tunnel TBM", i, "Projet " + i));
+            projects.add(new ProjectResponse(i, "Projet " + i, "Île-de-France, Paris", sites));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeObservations() throws Exception {
+        return objectMapper.writeValueAsBytes(observations);
+    }
+
+    @Benchmark
+    public byte[] serializeProjects() throws Exception {
+        return objectMapper.writeValueAsBytes(projects);
+    }
+}
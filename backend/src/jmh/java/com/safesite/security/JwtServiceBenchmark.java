@@ -0,0 +1,36 @@
+package com.safesite.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", "SafeSiteAI2024SecretKeyForJWTTokenGeneration256BitsMinimum");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
+        jwtService.init();
+        token = jwtService.generateToken("chef@safesite.ai", "CHEF");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("chef@safesite.ai", "CHEF");
+    }
+
+    @Benchmark
+    public Optional<Claims> parseClaims() {
+        return jwtService.parseClaims(token);
+    }
+}
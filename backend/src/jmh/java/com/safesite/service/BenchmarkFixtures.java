@@ -0,0 +1,78 @@
+package com.safesite.service;
+
+import com.safesite.entity.Observation;
+import com.safesite.entity.Recommendation;
+import com.safesite.entity.Site;
+import com.safesite.repository.RecommendationRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shared, database-free fixtures for the benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    public static final List<String> RECOMMENDATIONS = List.of(
+            "⚠️ Conformité EPI insuffisante (80.0%). Vérifier le port des équipements de protection.",
+            "😴 Niveau de fatigue élevé (7.0/10). Prévoir des pauses régulières et rotation des équipes.",
+            "☢️ Présence de matériaux dangereux. Protocoles spéciaux requis.");
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Catalog preloaded with the templates of {@link #RECOMMENDATIONS} (ids 1..n), backed by an
+     * in-memory stub.
+     */
+    public static RecommendationCatalog recommendationCatalog() {
+        List<Recommendation> rows = new ArrayList<>();
+        for (int i = 0; i < RECOMMENDATIONS.size(); i++) {
+            rows.add(new Recommendation(i + 1, RecommendationCatalog.templateOf(RECOMMENDATIONS.get(i))));
+        }
+        RecommendationRepository repository = (RecommendationRepository) Proxy.newProxyInstance(
+                RecommendationRepository.class.getClassLoader(),
+                new Class<?>[] { RecommendationRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> rows;
+                    case "findById", "findByText" -> Optional.empty();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        RecommendationCatalog catalog = new RecommendationCatalog(repository);
+        catalog.load();
+        return catalog;
+    }
+
+    public static List<Observation> observations(int count, RecommendationCatalog catalog) {
+        Site site = Site.builder().id(1L).name("Station Saint-Denis Pleyel").type("Gare souterraine").build();
+        String recommendationIds = catalog.encode(RECOMMENDATIONS);
+        String legacy = String.join("|||", RECOMMENDATIONS);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Observation> observations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            observations.add(Observation.builder()
+                    .id((long) i)
+                    .site(site)
+                    .temperature(20.0 + i % 15)
+                    .humidity(55.0)
+                    .epiCompliance(80.0)
+                    .fatigue(7.0)
+                    .workingHours(9.0)
+                    .workersCount(12)
+                    .hazardousMaterials(true)
+                    .weatherConditions("normal")
+                    .notes("Observation " + i)
+                    .riskScore(90)
+                    .riskLevel(RuleBasedRiskScorer.LEVEL_HIGH)
+                    .recommendationIds(recommendationIds)
+                    .recommendations(legacy)
+                    .createdAt(now.minusMinutes(i))
+                    .build());
+        }
+        return observations;
+    }
+}
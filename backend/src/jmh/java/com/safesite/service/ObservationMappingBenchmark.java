@@ -0,0 +1,50 @@
+package com.safesite.service;
+
+import com.safesite.dto.ObservationResponse;
+import com.safesite.entity.Observation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response mapping and the two recommendation encodings (catalog ids vs the
+ * legacy "|||"-joined column).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ObservationMappingBenchmark {
+
+    private ObservationMapper mapper;
+    private RecommendationCatalog catalog;
+    private Observation observation;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkFixtures.recommendationCatalog();
+        mapper = new ObservationMapper(catalog);
+        observation = BenchmarkFixtures.observations(1, catalog).get(0);
+    }
+
+    @Benchmark
+    public ObservationResponse mapToResponse() {
+        return mapper.toResponse(observation);
+    }
+
+    @Benchmark
+    public List<String> decodeCatalogIds() {
+        return catalog.decode(observation.getRecommendationIds());
+    }
+
+    @Benchmark
+    public List<String> splitLegacyColumn() {
+        return RecommendationCatalog.splitLegacy(observation.getRecommendations());
+    }
+
+    @Benchmark
+    public void encodeCatalogIds(Blackhole blackhole) {
+        blackhole.consume(catalog.encode(BenchmarkFixtures.RECOMMENDATIONS));
+    }
+}
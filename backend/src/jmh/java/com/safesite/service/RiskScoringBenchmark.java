@@ -0,0 +1,37 @@
+package com.safesite.service;
+
+import com.safesite.dto.RiskFeatures;
+import com.safesite.dto.RiskPredictionResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process rule engine on a high-risk and a low-risk input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RiskScoringBenchmark {
+
+    private RuleBasedRiskScorer scorer;
+    private RiskFeatures highRisk;
+    private RiskFeatures lowRisk;
+
+    @Setup
+    public void setUp() {
+        scorer = new RuleBasedRiskScorer();
+        highRisk = RiskFeatures.of(38.0, 60.0, 70.0, 8.0, 11.0, 15, true, "canicule");
+        lowRisk = RiskFeatures.of(22.0, 50.0, 98.0, 3.0, 8.0, 10, false, "normal");
+    }
+
+    @Benchmark
+    public RiskPredictionResponse scoreHighRisk() {
+        return scorer.score(highRisk);
+    }
+
+    @Benchmark
+    public RiskPredictionResponse scoreLowRisk() {
+        return scorer.score(lowRisk);
+    }
+}
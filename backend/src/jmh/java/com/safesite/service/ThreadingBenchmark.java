@@ -0,0 +1,83 @@
+package com.safesite.service;
+
+import com.safesite.dto.RiskFeatures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs virtual threads on the observation workload: each task does a JDBC
+ * round-trip, waits on the ML call, scores with the local rules, then writes the result.
+ * I/O is simulated with sleeps of the given latencies; the platform pool is sized like
+ * Tomcat's default (200 threads). Scores are observations per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ThreadingBenchmark {
+
+    private static final int TASKS = 2000;
+
+    @Param({ "platform", "virtual" })
+    private String threads;
+
+    @Param({ "20" })
+    private long mlLatencyMs;
+
+    @Param({ "2" })
+    private long jdbcLatencyMs;
+
+    @Param({ "200" })
+    private int platformPoolSize;
+
+    private ExecutorService executor;
+    private RuleBasedRiskScorer scorer;
+    private RiskFeatures features;
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(platformPoolSize);
+        scorer = new RuleBasedRiskScorer();
+        features = RiskFeatures.of(35.0, 60.0, 80.0, 7.0, 10.0, 15, true, "canicule");
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public void scoreObservations(Blackhole blackhole) throws Exception {
+        List<Future<?>> futures = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            futures.add(executor.submit(() -> {
+                sleep(jdbcLatencyMs);
+                sleep(mlLatencyMs);
+                blackhole.consume(scorer.score(features));
+                sleep(jdbcLatencyMs);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
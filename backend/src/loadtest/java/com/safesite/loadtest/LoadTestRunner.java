@@ -0,0 +1,253 @@
+package com.safesite.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safesite.SafeSiteApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test: boots the backend on an embedded H2 database against
+ * {@link MlServiceStub}, drives a weighted mix of logins, observation creations and
+ * dashboard reads from concurrent virtual users, and reports throughput, p50/p99 latency
+ * and error rate per operation to the console and to a JSON file.
+ *
+ * <p>Run with {@code mvn -Ploadtest verify}; every {@code loadtest.*} option below can be
+ * overridden with {@code -Dloadtest.<name>=<value>}.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    enum Operation { LOGIN, CREATE_OBSERVATION, DASHBOARD_STATS, LIST_OBSERVATIONS }
+
+    private static final String[] WEATHER = { "normal", "pluie", "canicule", "vent fort", "neige" };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int users = Integer.getInteger("loadtest.users", 32);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 10);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 60);
+    private final long mlLatencyMs = Long.getLong("loadtest.ml-latency-ms", 20L);
+    private final double mlErrorRate = Double.parseDouble(System.getProperty("loadtest.ml-error-rate", "0.01"));
+    private final String mix = System.getProperty("loadtest.mix", "LOGIN:5,CREATE_OBSERVATION:60,DASHBOARD_STATS:20,LIST_OBSERVATIONS:15");
+    private final Path reportPath = Paths.get(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+    private final Operation[] weightedOperations = parseMix(mix);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private String baseUrl;
+    private List<Long> siteIds;
+
+    public static void main(String[] args) throws Exception {
+        // devtools is on the test classpath; its restarter would relaunch the app in another classloader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        new LoadTestRunner().run();
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        try (MlServiceStub stub = new MlServiceStub(mlLatencyMs, mlErrorRate, 64);
+                ConfigurableApplicationContext context = new SpringApplicationBuilder(SafeSiteApplication.class)
+                        .profiles("loadtest")
+                        // Command-line arguments win over application.properties; default properties do not
+                        .run("--app.ml-service.url=" + stub.getUrl())) {
+            baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            siteIds = loadSiteIds();
+            log.info("Backend up at {}, ML stub at {} ({} ms, {}% errors), {} users, {}s warmup + {}s measured",
+                    baseUrl, stub.getUrl(), mlLatencyMs, mlErrorRate * 100, users, warmupSeconds, durationSeconds);
+
+            Map<Operation, OperationStats> results = drive();
+            writeReport(results, stub);
+        }
+    }
+
+    private Map<Operation, OperationStats> drive() throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        ExecutorService workers = Executors.newFixedThreadPool(users);
+        List<Future<Map<Operation, OperationStats>>> futures = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            futures.add(workers.submit(() -> virtualUser(measureFrom, end)));
+        }
+
+        Map<Operation, OperationStats> merged = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            merged.put(operation, new OperationStats());
+        }
+        for (Future<Map<Operation, OperationStats>> future : futures) {
+            future.get().forEach((operation, stats) -> merged.get(operation).merge(stats));
+        }
+        workers.shutdown();
+        return merged;
+    }
+
+    private Map<Operation, OperationStats> virtualUser(long measureFrom, long end) {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        String token = login().token();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            boolean success;
+            try {
+                success = switch (operation) {
+                    case LOGIN -> {
+                        LoginResult result = login();
+                        if (result.token() != null) {
+                            token = result.token();
+                        }
+                        yield result.success();
+                    }
+                    case CREATE_OBSERVATION -> send(post("/api/observations", observationBody(random), token));
+                    case DASHBOARD_STATS -> send(get("/api/stats", token));
+                    case LIST_OBSERVATIONS -> send(get("/api/observations/page?limit=50", token));
+                };
+            } catch (Exception e) {
+                success = false;
+            }
+            if (now >= measureFrom) {
+                stats.get(operation).record(System.nanoTime() - now, success);
+            }
+        }
+        return stats;
+    }
+
+    private record LoginResult(boolean success, String token) {
+    }
+
+    private LoginResult login() {
+        String email = ThreadLocalRandom.current().nextBoolean() ? "chef@safesite.ai" : "admin@safesite.ai";
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    post("/api/auth/login", Map.of("email", email, "password", "pass"), null),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return new LoginResult(false, null);
+            }
+            return new LoginResult(true, objectMapper.readTree(response.body()).path("token").asText(null));
+        } catch (Exception e) {
+            return new LoginResult(false, null);
+        }
+    }
+
+    private Map<String, Object> observationBody(ThreadLocalRandom random) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("siteId", siteIds.get(random.nextInt(siteIds.size())));
+        body.put("temperature", 5 + random.nextDouble(35));
+        body.put("humidity", 30 + random.nextDouble(60));
+        body.put("epiCompliance", 60 + random.nextDouble(40));
+        body.put("fatigue", 1 + random.nextDouble(9));
+        body.put("workingHours", 6 + random.nextDouble(7));
+        body.put("workersCount", 3 + random.nextInt(40));
+        body.put("hazardousMaterials", random.nextInt(5) == 0);
+        body.put("weatherConditions", WEATHER[random.nextInt(WEATHER.length)]);
+        body.put("notes", "load test");
+        return body;
+    }
+
+    private boolean send(HttpRequest request) throws Exception {
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        return status >= 200 && status < 300;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)), token).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body, String token) throws Exception {
+        return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)), token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder builder, String token) {
+        builder.timeout(Duration.ofSeconds(30));
+        return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+    }
+
+    private List<Long> loadSiteIds() throws Exception {
+        HttpResponse<String> response = httpClient.send(get("/api/sites", null), HttpResponse.BodyHandlers.ofString());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode site : objectMapper.readTree(response.body())) {
+            ids.add(site.path("id").asLong());
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No sites seeded, cannot create observations");
+        }
+        return ids;
+    }
+
+    private void writeReport(Map<Operation, OperationStats> results, MlServiceStub stub) throws Exception {
+        OperationStats total = new OperationStats();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        results.forEach((operation, stats) -> {
+            operations.put(operation.name(), stats.summarize(durationSeconds));
+            total.merge(stats);
+        });
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", users);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("durationSeconds", durationSeconds);
+        config.put("mix", mix);
+        config.put("mlLatencyMs", mlLatencyMs);
+        config.put("mlErrorRate", mlErrorRate);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("total", total.summarize(durationSeconds));
+        report.put("operations", operations);
+        report.put("mlStub", Map.of("calls", stub.getCalls(), "failures", stub.getFailures()));
+
+        String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+        log.info("Load test report:\n{}", json);
+        if (reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        Files.writeString(reportPath, json);
+        log.info("Report written to {}", reportPath.toAbsolutePath());
+    }
+
+    private static Operation[] parseMix(String mix) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Operation operation = Operation.valueOf(parts[0].trim());
+            int weight = Integer.parseInt(parts[1].trim());
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no weighted operation: " + mix);
+        }
+        return weighted.toArray(new Operation[0]);
+    }
+}
@@ -0,0 +1,330 @@
+package com.safesite.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable columnar file holding one month of observations of one site, read through a
+ * read-only memory map.
+ * <p>
+ * Layout (little-endian): a 32-byte header (magic, version, site id, yyyymm, row count,
+ * dictionary size), the string dictionary (risk levels and weather conditions) padded to
+ * 8 bytes, then one primitive array per column: 8-byte columns first so every column is
+ * naturally aligned. Nulls are {@link #NULL_INT}, {@code NaN}, {@link #NULL_CODE} or
+ * {@link #NULL_BOOLEAN} depending on the column type.
+ */
+public final class ArchiveSegment {
+
+    public static final int NULL_INT = Integer.MIN_VALUE;
+    public static final int NULL_CODE = -1;
+    public static final byte NULL_BOOLEAN = -1;
+
+    private static final int MAGIC = 0x53534152; // "SSAR"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final long siteId;
+    private final YearMonth month;
+    private final int rowCount;
+    private final String[] dictionary;
+    private final LongBuffer ids;
+    private final LongBuffer createdAt;
+    private final DoubleBuffer temperature;
+    private final DoubleBuffer humidity;
+    private final DoubleBuffer epiCompliance;
+    private final DoubleBuffer fatigue;
+    private final DoubleBuffer workingHours;
+    private final IntBuffer riskScore;
+    private final IntBuffer riskLevel;
+    private final IntBuffer weather;
+    private final IntBuffer workersCount;
+    private final ByteBuffer hazardousMaterials;
+
+    private ArchiveSegment(MappedByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an observation archive segment (v" + VERSION + ")");
+        }
+        siteId = buffer.getLong(8);
+        int yyyymm = buffer.getInt(16);
+        month = YearMonth.of(yyyymm / 100, yyyymm % 100);
+        rowCount = buffer.getInt(20);
+        int dictionarySize = buffer.getInt(24);
+
+        dictionary = new String[dictionarySize];
+        int position = HEADER_BYTES;
+        for (int i = 0; i < dictionarySize; i++) {
+            int length = buffer.getInt(position);
+            byte[] bytes = new byte[length];
+            buffer.get(position + 4, bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            position += 4 + length;
+        }
+        position = align8(position);
+
+        int n = rowCount;
+        ids = slice(buffer, position, n * 8L).asLongBuffer();
+        createdAt = slice(buffer, position += n * 8, n * 8L).asLongBuffer();
+        temperature = slice(buffer, position += n * 8, n * 8L).asDoubleBuffer();
+        humidity = slice(buffer, position += n * 8, n * 8L).asDoubleBuffer();
+        epiCompliance = slice(buffer, position += n * 8, n * 8L).asDoubleBuffer();
+        fatigue = slice(buffer, position += n * 8, n * 8L).asDoubleBuffer();
+        workingHours = slice(buffer, position += n * 8, n * 8L).asDoubleBuffer();
+        riskScore = slice(buffer, position += n * 8, n * 4L).asIntBuffer();
+        riskLevel = slice(buffer, position += n * 4, n * 4L).asIntBuffer();
+        weather = slice(buffer, position += n * 4, n * 4L).asIntBuffer();
+        workersCount = slice(buffer, position += n * 4, n * 4L).asIntBuffer();
+        hazardousMaterials = slice(buffer, position + n * 4, n);
+    }
+
+    public static ArchiveSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ArchiveSegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public long getSiteId() {
+        return siteId;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Dictionary entry of a code read from {@link #riskLevel(int)} or {@link #weather(int)}.
+     */
+    public String decode(int code) {
+        return code == NULL_CODE ? null : dictionary[code];
+    }
+
+    /**
+     * Dictionary code of {@code value}, or {@link #NULL_CODE} if the segment does not contain it.
+     */
+    public int codeOf(String value) {
+        for (int i = 0; i < dictionary.length; i++) {
+            if (dictionary[i].equals(value)) {
+                return i;
+            }
+        }
+        return NULL_CODE;
+    }
+
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    public long id(int row) {
+        return ids.get(row);
+    }
+
+    public long createdAtEpochSecond(int row) {
+        return createdAt.get(row);
+    }
+
+    public double temperature(int row) {
+        return temperature.get(row);
+    }
+
+    public double humidity(int row) {
+        return humidity.get(row);
+    }
+
+    public double epiCompliance(int row) {
+        return epiCompliance.get(row);
+    }
+
+    public double fatigue(int row) {
+        return fatigue.get(row);
+    }
+
+    public double workingHours(int row) {
+        return workingHours.get(row);
+    }
+
+    public int riskScore(int row) {
+        return riskScore.get(row);
+    }
+
+    public int riskLevel(int row) {
+        return riskLevel.get(row);
+    }
+
+    public int weather(int row) {
+        return weather.get(row);
+    }
+
+    public int workersCount(int row) {
+        return workersCount.get(row);
+    }
+
+    public byte hazardousMaterials(int row) {
+        return hazardousMaterials.get(row);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, long offset, long length) {
+        return buffer.slice(Math.toIntExact(offset), Math.toIntExact(length)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int align8(int position) {
+        return (position + 7) & ~7;
+    }
+
+    /**
+     * Accumulates rows in primitive arrays, then writes the segment atomically.
+     */
+    public static final class Writer {
+        private final long siteId;
+        private final YearMonth month;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int size;
+        private long[] ids = new long[256];
+        private long[] createdAt = new long[256];
+        private double[] temperature = new double[256];
+        private double[] humidity = new double[256];
+        private double[] epiCompliance = new double[256];
+        private double[] fatigue = new double[256];
+        private double[] workingHours = new double[256];
+        private int[] riskScore = new int[256];
+        private int[] riskLevel = new int[256];
+        private int[] weather = new int[256];
+        private int[] workersCount = new int[256];
+        private byte[] hazardousMaterials = new byte[256];
+
+        public Writer(long siteId, YearMonth month) {
+            this.siteId = siteId;
+            this.month = month;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void add(long id, LocalDateTime created, Integer score, String level,
+                Double temperatureValue, Double humidityValue, Double epiValue, Double fatigueValue,
+                Double workingHoursValue, Integer workers, Boolean hazardous, String weatherValue) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = id;
+            createdAt[size] = created.toEpochSecond(ZoneOffset.UTC);
+            temperature[size] = orNaN(temperatureValue);
+            humidity[size] = orNaN(humidityValue);
+            epiCompliance[size] = orNaN(epiValue);
+            fatigue[size] = orNaN(fatigueValue);
+            workingHours[size] = orNaN(workingHoursValue);
+            riskScore[size] = score != null ? score : NULL_INT;
+            riskLevel[size] = encode(level);
+            weather[size] = encode(weatherValue);
+            workersCount[size] = workers != null ? workers : NULL_INT;
+            hazardousMaterials[size] = hazardous == null ? NULL_BOOLEAN : (byte) (hazardous ? 1 : 0);
+            size++;
+        }
+
+        /**
+         * Writes to a temporary file next to {@code path}, then moves it into place so readers
+         * never see a partial segment.
+         */
+        public void write(Path path) throws IOException {
+            List<byte[]> entries = new ArrayList<>(dictionary.size());
+            int dictionaryBytes = 0;
+            for (String value : dictionary) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                entries.add(bytes);
+                dictionaryBytes += 4 + bytes.length;
+            }
+            int n = size;
+            int columnsStart = align8(HEADER_BYTES + dictionaryBytes);
+            long total = columnsStart + n * (7L * 8 + 4L * 4 + 1);
+
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(total)).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(siteId)
+                    .putInt(month.getYear() * 100 + month.getMonthValue())
+                    .putInt(n).putInt(entries.size()).putInt(0);
+            for (byte[] bytes : entries) {
+                buffer.putInt(bytes.length).put(bytes);
+            }
+            buffer.position(columnsStart);
+            buffer.asLongBuffer().put(ids, 0, n);
+            buffer.position(buffer.position() + n * 8);
+            buffer.asLongBuffer().put(createdAt, 0, n);
+            buffer.position(buffer.position() + n * 8);
+            for (double[] column : new double[][] { temperature, humidity, epiCompliance, fatigue, workingHours }) {
+                buffer.asDoubleBuffer().put(column, 0, n);
+                buffer.position(buffer.position() + n * 8);
+            }
+            for (int[] column : new int[][] { riskScore, riskLevel, weather, workersCount }) {
+                buffer.asIntBuffer().put(column, 0, n);
+                buffer.position(buffer.position() + n * 4);
+            }
+            buffer.put(hazardousMaterials, 0, n);
+            buffer.flip();
+
+            Files.createDirectories(path.getParent());
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private int encode(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            return codes.computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            temperature = Arrays.copyOf(temperature, capacity);
+            humidity = Arrays.copyOf(humidity, capacity);
+            epiCompliance = Arrays.copyOf(epiCompliance, capacity);
+            fatigue = Arrays.copyOf(fatigue, capacity);
+            workingHours = Arrays.copyOf(workingHours, capacity);
+            riskScore = Arrays.copyOf(riskScore, capacity);
+            riskLevel = Arrays.copyOf(riskLevel, capacity);
+            weather = Arrays.copyOf(weather, capacity);
+            workersCount = Arrays.copyOf(workersCount, capacity);
+            hazardousMaterials = Arrays.copyOf(hazardousMaterials, capacity);
+        }
+
+        private static double orNaN(Double value) {
+            return value != null ? value : Double.NaN;
+        }
+    }
+}
@@ -1,19 +1,180 @@
 package com.safesite.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 @Configuration
 public class AppConfig {
 
     @Value("${app.ml-service.url}")
     private String mlServiceUrl;
 
+    @Value("${app.ml-service.connect-timeout-ms:500}")
+    private long connectTimeoutMs;
+
+    @Value("${app.ml-service.read-timeout-ms:2000}")
+    private long readTimeoutMs;
+
+    @Value("${app.ml-service.pool.acquire-timeout-ms:200}")
+    private long acquireTimeoutMs;
+
+    @Value("${app.ml-service.pool.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${app.scoring.pool-size:4}")
+    private int scoringPoolSize;
+
+    @Value("${app.scoring.queue-capacity:500}")
+    private int scoringQueueCapacity;
+
+    @Value("${app.scoring.virtual-concurrency:64}")
+    private int scoringVirtualConcurrency;
+
+    @Value("${app.alerts.pool-size:4}")
+    private int alertPoolSize;
+
+    @Value("${app.mvc-async.pool-size:16}")
+    private int mvcAsyncPoolSize;
+
+    @Value("${app.jobs.max-concurrent:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${app.jobs.pool-size:4}")
+    private int jobPoolSize;
+
+    // Same switch Spring Boot uses for Tomcat request threads (requires Java 21)
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * RestTemplate backed by a pooled keep-alive HTTP client. Connect, read and pool-acquire
+     * timeouts are bounded so a stalled ML service cannot hang request threads.
+     */
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    /**
+     * Bounded pool for asynchronous observation scoring. When the queue is full the
+     * submitting thread scores the observation itself, which throttles producers.
+     * <p>
+     * With virtual threads enabled each scoring task gets its own virtual thread instead, and
+     * submitters block once {@code app.scoring.virtual-concurrency} tasks are in flight.
+     */
+    @Bean
+    public AsyncTaskExecutor scoringExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("scoring-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(scoringVirtualConcurrency);
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(scoringPoolSize);
+        executor.setMaxPoolSize(scoringPoolSize);
+        executor.setQueueCapacity(scoringQueueCapacity);
+        executor.setThreadNamePrefix("scoring-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Small pool that fans alerts out to SSE subscribers and writes to their connections.
+     * Work that does not fit is rejected rather than queued without bound.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor alertExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(alertPoolSize);
+        executor.setMaxPoolSize(alertPoolSize);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("alerts-");
+        return executor;
+    }
+
+    /**
+     * Runs background jobs (imports, ...): one thread per job driving its chunks. Jobs beyond
+     * {@code app.jobs.max-concurrent} wait in the queue.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor jobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs);
+        executor.setMaxPoolSize(maxConcurrentJobs);
+        executor.setThreadNamePrefix("job-");
+        return executor;
+    }
+
+    /**
+     * Processes job chunks, shared by all running jobs. Jobs bound the chunks they have in
+     * flight themselves, so the queue stays short; the pool size caps the database
+     * connections and ML calls background work can take from foreground traffic.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor jobWorkerExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobPoolSize);
+        executor.setMaxPoolSize(jobPoolSize);
+        executor.setThreadNamePrefix("job-worker-");
+        return executor;
+    }
+
+    /**
+     * Executor for Spring MVC async processing ({@code StreamingResponseBody}). Spring Boot
+     * only auto-configures {@code applicationTaskExecutor} when no other executor bean exists,
+     * which is not the case here, so it is declared explicitly.
+     */
+    @Bean(name = "applicationTaskExecutor")
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mvcAsyncPoolSize);
+        executor.setMaxPoolSize(mvcAsyncPoolSize);
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
     }
 
     public String getMlServiceUrl() {
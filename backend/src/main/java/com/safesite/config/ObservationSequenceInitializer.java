@@ -0,0 +1,34 @@
+package com.safesite.config;
+
+import com.safesite.entity.Observation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves {@code observations_seq} past the ids created while observations used an
+ * IDENTITY column, so the pooled sequence never hands out an existing id.
+ */
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@Slf4j
+public class ObservationSequenceInitializer implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM observations", Long.class);
+        Long next = jdbcTemplate.queryForObject("SELECT nextval('observations_seq')", Long.class);
+        // The pooled optimizer hands out (value - allocationSize, value]
+        if (maxId != null && next != null && next - Observation.ID_ALLOCATION_SIZE < maxId) {
+            long restart = maxId + Observation.ID_ALLOCATION_SIZE;
+            jdbcTemplate.execute("ALTER SEQUENCE observations_seq RESTART WITH " + restart);
+            log.info("Realigned observations_seq to {} (max observation id {})", restart, maxId);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.safesite.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statement-count budgets per endpoint, keyed by {@code "<METHOD> <pattern>"}
+ * (e.g. {@code "GET /api/projects"}). Endpoints without an entry use {@code defaultBudget}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.query-budget")
+public class QueryBudgetProperties {
+    private boolean enabled = false;
+    private int defaultBudget = 10;
+    private Map<String, Integer> endpoints = new HashMap<>();
+}
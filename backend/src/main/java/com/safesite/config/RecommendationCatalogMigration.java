@@ -0,0 +1,59 @@
+package com.safesite.config;
+
+import com.safesite.service.RecommendationCatalog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves observations still storing {@code "|||"}-joined recommendation texts to catalog ids,
+ * in chunks of batched updates. Rows not migrated yet are still readable through the legacy
+ * column, so this runs after startup without blocking traffic.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationCatalogMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RecommendationCatalog recommendationCatalog;
+
+    @Value("${app.recommendations.migration-chunk-size:1000}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long migrated = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, recommendations FROM observations "
+                            + "WHERE recommendation_ids IS NULL AND recommendations IS NOT NULL ORDER BY id LIMIT ?",
+                    chunkSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                String legacy = (String) row.get("recommendations");
+                String ids = recommendationCatalog.encode(RecommendationCatalog.splitLegacy(legacy));
+                updates.add(new Object[] { ids, ((Number) row.get("id")).longValue() });
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE observations SET recommendation_ids = ?, recommendations = NULL WHERE id = ?",
+                    updates);
+            migrated += rows.size();
+        }
+        if (migrated > 0) {
+            log.info("Migrated recommendations of {} observations to the catalog", migrated);
+        }
+    }
+}
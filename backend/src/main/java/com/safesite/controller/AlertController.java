@@ -0,0 +1,32 @@
+package com.safesite.controller;
+
+import com.safesite.entity.User;
+import com.safesite.service.AlertHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class AlertController {
+
+    private final AlertHub alertHub;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAlerts(
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Long siteId,
+            @AuthenticationPrincipal User user) {
+        SseEmitter emitter = alertHub.subscribe(user, projectId, siteId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -0,0 +1,27 @@
+package com.safesite.controller;
+
+import com.safesite.dto.ObservationAnalyticsQuery;
+import com.safesite.service.ObservationAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final ObservationAnalyticsService analyticsService;
+
+    @GetMapping("/observations")
+    public ResponseEntity<Map<String, Object>> aggregateObservations(ObservationAnalyticsQuery query) {
+        try {
+            return ResponseEntity.ok(analyticsService.aggregate(query));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.safesite.controller;
+
+import com.safesite.dto.ArchiveMonthSummary;
+import com.safesite.service.ObservationArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/archive")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class ArchiveController {
+
+    private final ObservationArchiveService archiveService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(archiveService.getStatus());
+    }
+
+    @GetMapping("/sites/{siteId}/monthly")
+    public ResponseEntity<List<ArchiveMonthSummary>> getMonthlySummaries(
+            @PathVariable Long siteId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        try {
+            return ResponseEntity.ok(archiveService.getMonthlySummaries(siteId, from, to));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        return ResponseEntity.ok(archiveService.rebuild());
+    }
+}
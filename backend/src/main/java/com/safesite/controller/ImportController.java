@@ -0,0 +1,87 @@
+package com.safesite.controller;
+
+import com.safesite.dto.BatchJobResponse;
+import com.safesite.entity.User;
+import com.safesite.service.ObservationImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/imports")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final ObservationImportService importService;
+
+    /**
+     * Queues the import of a CSV file of observations and returns the job (202); progress
+     * is read from {@code GET /api/imports/{id}}.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BatchJobResponse> importObservations(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Long projectId,
+            @AuthenticationPrincipal User user) {
+        try {
+            BatchJobResponse job = importService.submit(file, projectId, user);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/imports/" + job.getId()))
+                    .body(job);
+        } catch (RuntimeException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BatchJobResponse>> getImports() {
+        return ResponseEntity.ok(importService.getJobs());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BatchJobResponse> getImport(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(importService.getJobStatus(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<BatchJobResponse> resumeImport(@PathVariable Long id) {
+        try {
+            importService.getJobStatus(id);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.accepted().body(importService.resume(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}/rejected")
+    public ResponseEntity<StreamingResponseBody> getRejectedRows(@PathVariable Long id) {
+        try {
+            importService.getJobStatus(id);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = out -> importService.writeRejects(id, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + id + "-rejected.csv\"")
+                .body(body);
+    }
+}
@@ -1,14 +1,22 @@
 package com.safesite.controller;
 
+import com.safesite.dto.CursorPage;
+import com.safesite.dto.ObservationBatchResponse;
+import com.safesite.dto.ObservationFilter;
 import com.safesite.dto.ObservationRequest;
 import com.safesite.dto.ObservationResponse;
 import com.safesite.entity.User;
 import com.safesite.service.ObservationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -19,11 +27,47 @@ public class ObservationController {
 
     private final ObservationService observationService;
 
+    @Value("${app.scoring.async:false}")
+    private boolean asyncScoring;
+
+    @Value("${app.observations.batch.max-size:5000}")
+    private int maxBatchSize;
+
     @GetMapping
     public ResponseEntity<List<ObservationResponse>> getAllObservations() {
         return ResponseEntity.ok(observationService.getAllObservations());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<ObservationResponse>> getObservationPage(
+            ObservationFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(observationService.getObservationPage(filter, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/site/{siteId}/page")
+    public ResponseEntity<CursorPage<ObservationResponse>> getObservationPageBySite(
+            @PathVariable Long siteId,
+            ObservationFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        filter.setSiteId(siteId);
+        return getObservationPage(filter, cursor, limit);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamObservations(ObservationFilter filter) {
+        StreamingResponseBody body = out -> observationService.streamObservations(filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ObservationResponse> getObservation(@PathVariable Long id) {
         try {
@@ -41,12 +85,29 @@ public class ObservationController {
     @PostMapping
     public ResponseEntity<ObservationResponse> createObservation(
             @RequestBody ObservationRequest request,
+            @RequestParam(required = false) Boolean async,
             @AuthenticationPrincipal User user) {
         try {
+            if (async != null ? async : asyncScoring) {
+                ObservationResponse response = observationService.submitObservation(request, user);
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/observations/" + response.getId()))
+                        .body(response);
+            }
             ObservationResponse response = observationService.createObservation(request, user);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ObservationBatchResponse> createObservations(
+            @RequestBody List<ObservationRequest> requests,
+            @AuthenticationPrincipal User user) {
+        if (requests.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(observationService.createObservations(requests, user));
+    }
 }
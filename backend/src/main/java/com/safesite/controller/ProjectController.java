@@ -1,11 +1,17 @@
 package com.safesite.controller;
 
+import com.safesite.dto.ChefAssignmentRequest;
 import com.safesite.dto.ProjectResponse;
 import com.safesite.dto.SiteResponse;
+import com.safesite.repository.ProjectRepository;
+import com.safesite.service.ObservationExportService;
 import com.safesite.service.ProjectService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -17,6 +23,8 @@ import java.util.Map;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final ProjectRepository projectRepository;
+    private final ObservationExportService observationExportService;
 
     @GetMapping
     public ResponseEntity<List<ProjectResponse>> getAllProjects() {
@@ -32,6 +40,32 @@ public class ProjectController {
         }
     }
 
+    /**
+     * Streams every observation of the project; {@code gzip=true} returns a {@code .gz} file.
+     */
+    @GetMapping("/{id}/observations/export")
+    public ResponseEntity<StreamingResponseBody> exportObservations(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (!ObservationExportService.isSupported(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!projectRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String filename = "project-" + id + "-observations." + format + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : ObservationExportService.FORMAT_CSV.equals(format) ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+        StreamingResponseBody body = out -> observationExportService.export(id, format, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     @PostMapping
     public ResponseEntity<ProjectResponse> createProject(@RequestBody Map<String, String> request) {
         String name = request.get("name");
@@ -87,4 +121,16 @@ public class ProjectController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    /**
+     * Assigns or unassigns many chefs across many projects in one batch.
+     */
+    @PostMapping("/assignments")
+    public ResponseEntity<Map<String, Object>> updateAssignments(@RequestBody ChefAssignmentRequest request) {
+        try {
+            return ResponseEntity.ok(projectService.updateAssignments(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
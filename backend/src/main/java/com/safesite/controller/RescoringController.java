@@ -0,0 +1,65 @@
+package com.safesite.controller;
+
+import com.safesite.dto.BatchJobResponse;
+import com.safesite.entity.User;
+import com.safesite.service.ObservationRescoringService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rescoring")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class RescoringController {
+
+    private final ObservationRescoringService rescoringService;
+
+    /**
+     * Starts re-scoring the observations scored with an older rules version (202); progress
+     * is read from {@code GET /api/rescoring/{id}}.
+     */
+    @PostMapping
+    public ResponseEntity<BatchJobResponse> startRescoring(@AuthenticationPrincipal User user) {
+        try {
+            BatchJobResponse job = rescoringService.submit(user);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/rescoring/" + job.getId()))
+                    .body(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BatchJobResponse>> getRescoringJobs() {
+        return ResponseEntity.ok(rescoringService.getJobs());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BatchJobResponse> getRescoringJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(rescoringService.getJobStatus(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<BatchJobResponse> resumeRescoring(@PathVariable Long id) {
+        try {
+            rescoringService.getJobStatus(id);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.accepted().body(rescoringService.resume(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package com.safesite.controller;
 
+import com.safesite.dto.CursorPage;
+import com.safesite.dto.RiskSeriesPoint;
 import com.safesite.dto.SiteResponse;
+import com.safesite.dto.SiteTrendResponse;
 import com.safesite.entity.Site;
 import com.safesite.repository.SiteRepository;
+import com.safesite.service.AnomalyDetector;
+import com.safesite.service.DashboardStatsService;
+import com.safesite.service.RiskRollupService;
+import com.safesite.service.SiteAccessIndex;
+import com.safesite.service.SiteTrendService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,36 +28,92 @@ import java.util.stream.Collectors;
 public class SiteController {
 
     private final SiteRepository siteRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final RiskRollupService riskRollupService;
+    private final SiteTrendService siteTrendService;
+    private final AnomalyDetector anomalyDetector;
+    private final SiteAccessIndex siteAccessIndex;
 
     @GetMapping
     public ResponseEntity<List<SiteResponse>> getAllSites() {
-        List<SiteResponse> sites = siteRepository.findAll().stream()
+        List<SiteResponse> sites = siteRepository.findAllWithProject().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(sites);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<SiteResponse>> getSitePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), 500);
+        long afterId;
+        try {
+            afterId = CursorPage.decodeIdCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // One extra row tells whether another page exists
+        List<Site> sites = siteRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = sites.size() > pageSize;
+        if (hasMore) {
+            sites = sites.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? CursorPage.encodeCursor(String.valueOf(sites.get(pageSize - 1).getId())) : null;
+        return ResponseEntity.ok(CursorPage.<SiteResponse>builder()
+                .items(sites.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SiteResponse> getSiteById(@PathVariable Long id) {
-        return siteRepository.findById(id)
+        return siteRepository.findWithProjectById(id)
                 .map(this::mapToResponse)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/risk-series")
+    public ResponseEntity<List<RiskSeriesPoint>> getRiskSeries(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "hour") String bucket) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        try {
+            return ResponseEntity.ok(riskRollupService.getRiskSeries(id, start, end, bucket));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}/trend")
+    public ResponseEntity<SiteTrendResponse> getTrend(@PathVariable Long id) {
+        if (!siteRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(siteTrendService.getTrend(id));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSite(@PathVariable Long id) {
         if (!siteRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
         siteRepository.deleteById(id);
+        dashboardStatsService.reconcile();
+        siteTrendService.evict(id);
+        anomalyDetector.evict(id);
+        siteAccessIndex.onSiteDeleted(id);
         return ResponseEntity.ok().build();
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<SiteResponse> updateSite(@PathVariable Long id,
             @RequestBody java.util.Map<String, String> request) {
-        return siteRepository.findById(id)
+        return siteRepository.findWithProjectById(id)
                 .map(site -> {
                     if (request.containsKey("name")) {
                         site.setName(request.get("name"));
@@ -1,10 +1,7 @@
 package com.safesite.controller;
 
-import com.safesite.entity.Role;
-import com.safesite.repository.ObservationRepository;
-import com.safesite.repository.ProjectRepository;
-import com.safesite.repository.SiteRepository;
-import com.safesite.repository.UserRepository;
+import com.safesite.service.DashboardStatsService;
+import com.safesite.service.RiskAnalysisService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,30 +14,22 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class StatsController {
 
-    private final ProjectRepository projectRepository;
-    private final SiteRepository siteRepository;
-    private final UserRepository userRepository;
-    private final ObservationRepository observationRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final RiskAnalysisService riskAnalysisService;
 
     @GetMapping
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        long totalProjects = projectRepository.count();
-        long totalSites = siteRepository.count();
-        long totalManagers = userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.CHEF)
-                .count();
-        long totalObservations = observationRepository.count();
+        return ResponseEntity.ok(dashboardStatsService.getDashboardStats());
+    }
 
-        // Count high risk observations as alerts
-        long todayAlerts = observationRepository.findAll().stream()
-                .filter(o -> "ÉLEVÉ".equals(o.getRiskLevel()) || "HIGH".equals(o.getRiskLevel()))
-                .count();
+    @GetMapping("/ml-service")
+    public ResponseEntity<Map<String, Object>> getMlServiceStatus() {
+        return ResponseEntity.ok(riskAnalysisService.getMlServiceStatus());
+    }
 
-        return ResponseEntity.ok(Map.of(
-                "totalProjects", totalProjects,
-                "totalSites", totalSites,
-                "totalManagers", totalManagers,
-                "totalObservations", totalObservations,
-                "todayAlerts", todayAlerts));
+    @PostMapping("/ml-service/cache/invalidate")
+    public ResponseEntity<Void> invalidateRiskCache(@RequestParam(defaultValue = "manual") String reason) {
+        riskAnalysisService.invalidateCache(reason);
+        return ResponseEntity.ok().build();
     }
 }
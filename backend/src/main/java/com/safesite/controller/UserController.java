@@ -2,8 +2,16 @@ package com.safesite.controller;
 
 import com.safesite.entity.Role;
 import com.safesite.entity.User;
+import com.safesite.repository.ProjectRepository;
+import com.safesite.repository.SiteRepository;
 import com.safesite.repository.UserRepository;
+import com.safesite.security.UserPrincipalCache;
+import com.safesite.service.DashboardStatsService;
+import com.safesite.service.SiteAccessIndex;
+import com.safesite.dto.CursorPage;
+import com.safesite.dto.UserResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -18,19 +26,45 @@ import java.util.Map;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final SiteRepository siteRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache userPrincipalCache;
+    private final DashboardStatsService dashboardStatsService;
+    private final SiteAccessIndex siteAccessIndex;
 
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers() {
         return ResponseEntity.ok(userRepository.findAll());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<UserResponse>> getUserPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), 500);
+        long afterId;
+        try {
+            afterId = CursorPage.decodeIdCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // One extra row tells whether another page exists
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? CursorPage.encodeCursor(String.valueOf(users.get(pageSize - 1).getId())) : null;
+        return ResponseEntity.ok(CursorPage.<UserResponse>builder()
+                .items(users.stream().map(UserResponse::of).collect(java.util.stream.Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build());
+    }
+
     @GetMapping("/chefs")
     public ResponseEntity<List<User>> getAllChefs() {
-        List<User> chefs = userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.CHEF)
-                .toList();
-        return ResponseEntity.ok(chefs);
+        return ResponseEntity.ok(userRepository.findByRole(Role.CHEF));
     }
 
     @GetMapping("/{id}")
@@ -59,22 +93,28 @@ public class UserController {
                 .build();
 
         user = userRepository.save(user);
+        dashboardStatsService.onUserCreated(user.getRole());
         return ResponseEntity.ok(user);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        if (!userRepository.existsById(id)) {
-            return ResponseEntity.notFound().build();
-        }
-        userRepository.deleteById(id);
-        return ResponseEntity.ok().build();
+        return userRepository.findById(id)
+                .map(user -> {
+                    userRepository.deleteById(id);
+                    userPrincipalCache.evict(user.getEmail());
+                    dashboardStatsService.reconcile();
+                    siteAccessIndex.onUserDeleted(id);
+                    return ResponseEntity.ok().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody Map<String, String> request) {
         return userRepository.findById(id)
                 .map(user -> {
+                    userPrincipalCache.evict(user.getEmail());
                     if (request.containsKey("fullName")) {
                         user.setFullName(request.get("fullName"));
                     }
@@ -82,6 +122,7 @@ public class UserController {
                         user.setEmail(request.get("email"));
                     }
                     userRepository.save(user);
+                    userPrincipalCache.evict(user.getEmail());
                     return ResponseEntity.ok(user);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -93,50 +134,63 @@ public class UserController {
                 .map(user -> {
                     user.setPassword(passwordEncoder.encode("pass"));
                     userRepository.save(user);
+                    userPrincipalCache.evict(user.getEmail());
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Ids of the sites the user may see (sites of their assigned projects), from the access index.
+     */
+    @GetMapping("/{id}/site-ids")
+    public ResponseEntity<long[]> getAccessibleSiteIds(@PathVariable Long id) {
+        return ResponseEntity.ok(siteAccessIndex.getSiteIds(id));
+    }
+
+    @GetMapping("/{id}/sites/{siteId}/access")
+    public ResponseEntity<Map<String, Object>> checkSiteAccess(@PathVariable Long id, @PathVariable Long siteId) {
+        return ResponseEntity.ok(Map.of("userId", id, "siteId", siteId,
+                "allowed", siteAccessIndex.canAccess(id, siteId)));
+    }
+
     @GetMapping("/by-email/{email}/sites")
     public ResponseEntity<List<Map<String, Object>>> getSitesByUserEmail(@PathVariable String email) {
-        return userRepository.findByEmail(email)
-                .map(user -> {
-                    // Get all sites from all assigned PROJECTS
-                    List<Map<String, Object>> sites = user.getAssignedProjects().stream()
-                            .flatMap(project -> project.getSites().stream())
-                            .map(site -> {
-                                Map<String, Object> siteMap = new java.util.HashMap<>();
-                                siteMap.put("id", site.getId());
-                                siteMap.put("name", site.getName());
-                                siteMap.put("type", site.getType());
-                                siteMap.put("projectId", site.getProject() != null ? site.getProject().getId() : null);
-                                siteMap.put("projectName",
-                                        site.getProject() != null ? site.getProject().getName() : null);
-                                return siteMap;
-                            })
-                            .collect(java.util.stream.Collectors.toList());
-                    return ResponseEntity.ok(sites);
+        // Site ids from the access index, then the sites with their project in one query
+        long[] siteIds = userPrincipalCache.findByEmail(email)
+                .map(user -> siteAccessIndex.getSiteIds(user.getId()))
+                .orElse(new long[0]);
+        if (siteIds.length == 0) {
+            return ResponseEntity.ok(List.of());
+        }
+        List<Map<String, Object>> sites = siteRepository.findByIdInOrderByIdAsc(
+                        java.util.Arrays.stream(siteIds).boxed().toList()).stream()
+                .map(site -> {
+                    Map<String, Object> siteMap = new java.util.HashMap<>();
+                    siteMap.put("id", site.getId());
+                    siteMap.put("name", site.getName());
+                    siteMap.put("type", site.getType());
+                    siteMap.put("projectId", site.getProject() != null ? site.getProject().getId() : null);
+                    siteMap.put("projectName",
+                            site.getProject() != null ? site.getProject().getName() : null);
+                    return siteMap;
                 })
-                .orElse(ResponseEntity.ok(java.util.Collections.emptyList()));
+                .collect(java.util.stream.Collectors.toList());
+        return ResponseEntity.ok(sites);
     }
 
     @GetMapping("/by-email/{email}/projects")
     public ResponseEntity<List<Map<String, Object>>> getProjectsByUserEmail(@PathVariable String email) {
-        return userRepository.findByEmail(email)
-                .map(user -> {
-                    List<Map<String, Object>> projects = user.getAssignedProjects().stream()
-                            .map(project -> {
-                                Map<String, Object> projectMap = new java.util.HashMap<>();
-                                projectMap.put("id", project.getId());
-                                projectMap.put("name", project.getName());
-                                projectMap.put("location", project.getLocation());
-                                projectMap.put("sitesCount", project.getSites().size());
-                                return projectMap;
-                            })
-                            .collect(java.util.stream.Collectors.toList());
-                    return ResponseEntity.ok(projects);
+        List<Map<String, Object>> projects = projectRepository.findSummariesByUserEmail(email).stream()
+                .map(project -> {
+                    Map<String, Object> projectMap = new java.util.HashMap<>();
+                    projectMap.put("id", project.getId());
+                    projectMap.put("name", project.getName());
+                    projectMap.put("location", project.getLocation());
+                    projectMap.put("sitesCount", project.getSitesCount());
+                    return projectMap;
                 })
-                .orElse(ResponseEntity.ok(java.util.Collections.emptyList()));
+                .collect(java.util.stream.Collectors.toList());
+        return ResponseEntity.ok(projects);
     }
 }
@@ -0,0 +1,24 @@
+package com.safesite.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveMonthSummary {
+    private Long siteId;
+    // yyyy-MM
+    private String month;
+    private long count;
+    private Double meanRiskScore;
+    private Integer maxRiskScore;
+    private long highCount;
+    private long mediumCount;
+    private long lowCount;
+    private Double meanFatigue;
+    private Double belowEpiThresholdRatio;
+}
@@ -0,0 +1,47 @@
+package com.safesite.dto;
+
+import com.safesite.entity.BatchJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobResponse {
+    private Long id;
+    private String type;
+    private String status;
+    private Long projectId;
+    private long totalItems;
+    private long processedItems;
+    private long failedItems;
+    // processedItems / totalItems, in percent
+    private double progress;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public static BatchJobResponse of(BatchJob job) {
+        return BatchJobResponse.builder()
+                .id(job.getId())
+                .type(job.getType().name())
+                .status(job.getStatus().name())
+                .projectId(job.getProjectId())
+                .totalItems(job.getTotalItems())
+                .processedItems(job.getProcessedItems())
+                .failedItems(job.getFailedItems())
+                .progress(job.getTotalItems() > 0
+                        ? Math.round(1000.0 * job.getProcessedItems() / job.getTotalItems()) / 10.0
+                        : 0)
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
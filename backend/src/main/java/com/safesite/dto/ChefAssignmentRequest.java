@@ -0,0 +1,15 @@
+package com.safesite.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * Bulk (un)assignment: {@code action} ("assign" or "unassign") applies to every pair of
+ * {@code chefIds} x {@code projectIds}.
+ */
+@Data
+public class ChefAssignmentRequest {
+    private String action;
+    private List<Long> chefIds;
+    private List<Long> projectIds;
+}
@@ -0,0 +1,41 @@
+package com.safesite.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page. Cursors
+ * are opaque to clients: the position of the last returned row, base64url-encoded.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public static String encodeCursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Position encoded in the cursor; throws {@link IllegalArgumentException} if it is not valid base64url.
+     */
+    public static String decodeCursor(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Id encoded in a cursor of an id-ordered listing, or 0 (before the first row) without cursor.
+     */
+    public static long decodeIdCursor(String cursor) {
+        return cursor != null && !cursor.isBlank() ? Long.parseLong(decodeCursor(cursor)) : 0L;
+    }
+}
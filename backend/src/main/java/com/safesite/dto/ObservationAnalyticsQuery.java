@@ -0,0 +1,49 @@
+package com.safesite.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregation request of {@code GET /api/analytics/observations}.
+ * <ul>
+ * <li>{@code groupBy}: any of project, site, riskLevel, weather, period.</li>
+ * <li>{@code bucket}: hour, day, week or month. It sets the size of the period dimension.</li>
+ * <li>{@code metrics}: any of count, avgRiskScore, maxRiskScore, avgFatigue, belowEpiPct.</li>
+ * </ul>
+ * Filters are optional; {@code from} is inclusive, {@code to} exclusive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObservationAnalyticsQuery {
+    @Builder.Default
+    private List<String> groupBy = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> metrics = new ArrayList<>(List.of("count"));
+
+    @Builder.Default
+    private String bucket = "day";
+
+    private Long projectId;
+    private Long siteId;
+    private String riskLevel;
+    private String weatherConditions;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    @Builder.Default
+    private double epiThreshold = 85.0;
+}
@@ -0,0 +1,22 @@
+package com.safesite.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one observation of a batch, identified by its position in the request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObservationBatchItem {
+    private int index;
+    private boolean success;
+    private Long id;
+    private Integer riskScore;
+    private String riskLevel;
+    private String error;
+}
@@ -27,5 +27,8 @@ public class ObservationResponse {
     private Integer riskScore;
     private String riskLevel;
     private List<String> recommendations;
+    private String rulesVersion;
+    private boolean anomaly;
+    private List<String> anomalousMetrics;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,25 @@
+package com.safesite.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * High-risk observation pushed to alert stream subscribers.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskAlert {
+    private Long observationId;
+    private Long siteId;
+    private Long projectId;
+    private Integer riskScore;
+    private String riskLevel;
+    private List<String> recommendations;
+    private LocalDateTime createdAt;
+}
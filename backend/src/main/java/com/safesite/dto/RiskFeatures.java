@@ -0,0 +1,40 @@
+package com.safesite.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Normalized input of a risk prediction, with the ML service defaults applied.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskFeatures {
+    private double temperature;
+    private double humidity;
+    private double epiCompliance;
+    private double fatigue;
+    private double workingHours;
+    private int workersCount;
+    private boolean hazardousMaterials;
+    private String weatherConditions;
+
+    public static RiskFeatures of(Double temperature, Double humidity,
+            Double epiCompliance, Double fatigue,
+            Double workingHours, Integer workersCount,
+            Boolean hazardousMaterials, String weatherConditions) {
+        return RiskFeatures.builder()
+                .temperature(temperature != null ? temperature : 25.0)
+                .humidity(humidity != null ? humidity : 50.0)
+                .epiCompliance(epiCompliance != null ? epiCompliance : 100.0)
+                .fatigue(fatigue != null ? fatigue : 3.0)
+                .workingHours(workingHours != null ? workingHours : 8.0)
+                .workersCount(workersCount != null ? workersCount : 10)
+                .hazardousMaterials(hazardousMaterials != null ? hazardousMaterials : false)
+                .weatherConditions(weatherConditions != null ? weatherConditions : "normal")
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.safesite.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskSeriesPoint {
+    private LocalDateTime bucketStart;
+    private long count;
+    private Double meanRiskScore;
+    private Integer maxRiskScore;
+    private long highCount;
+    private long mediumCount;
+    private long lowCount;
+}
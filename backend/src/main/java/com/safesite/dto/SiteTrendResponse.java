@@ -0,0 +1,24 @@
+package com.safesite.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SiteTrendResponse {
+    private Long siteId;
+    private long observationCount;
+    private Double riskScoreEwma;
+    private Double fatigueEwma;
+    private Double epiComplianceEwma;
+    // Smoothed change of the risk score per observation (Holt's linear trend)
+    private Double riskScoreSlope;
+    // RISING, FALLING or STABLE
+    private String direction;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,58 @@
+package com.safesite.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Long-running background job (CSV import, re-scoring). Work is split into chunks; each chunk
+ * commits its rows together with a {@link BatchJobChunk} marker, which is the job's
+ * checkpoint when it is resumed.
+ */
+@Entity
+@Table(name = "batch_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private JobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+
+    // Job input: the stored CSV file of an import, the target rules version of a re-scoring
+    @Column(length = 500)
+    private String source;
+
+    // Optional scope of the job (e.g. project used to resolve site names)
+    private Long projectId;
+
+    private Long createdById;
+
+    private long totalItems;
+    private long processedItems;
+    private long failedItems;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,27 @@
+package com.safesite.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marker of a committed chunk of a {@link BatchJob}, written in the same transaction as
+ * the chunk's rows so a resumed job never processes a chunk twice.
+ */
+@Entity
+@Table(name = "batch_job_chunks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchJobChunk {
+
+    @EmbeddedId
+    private BatchJobChunkId id;
+
+    private int processedItems;
+    private int failedItems;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+}
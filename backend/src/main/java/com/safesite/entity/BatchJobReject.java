@@ -0,0 +1,32 @@
+package com.safesite.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Input row rejected by a {@link BatchJob}, with the reason and the original text.
+ */
+@Entity
+@Table(name = "batch_job_rejects", indexes = @Index(name = "idx_batch_job_rejects_job", columnList = "job_id, line_number"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchJobReject {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "line_number", nullable = false)
+    private long lineNumber;
+
+    @Column(nullable = false, length = 500)
+    private String reason;
+
+    @Column(length = 4000)
+    private String rawLine;
+}
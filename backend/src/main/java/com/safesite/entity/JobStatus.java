@@ -0,0 +1,11 @@
+package com.safesite.entity;
+
+/**
+ * Lifecycle of a background batch job. QUEUED and RUNNING jobs are resumed on startup.
+ */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.safesite.entity;
+
+/**
+ * Kinds of background batch jobs.
+ */
+public enum JobType {
+    OBSERVATION_IMPORT,
+    OBSERVATION_RESCORE
+}
@@ -6,15 +6,24 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "observations")
+@Table(name = "observations", indexes = {
+        // Keyset pagination and time-range analytics
+        @Index(name = "idx_observations_created_at_id", columnList = "created_at, id"),
+        // Per-site listings, rollup backfill and per-site analytics
+        @Index(name = "idx_observations_site_created_at", columnList = "site_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Observation {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "observations_seq")
+    @SequenceGenerator(name = "observations_seq", sequenceName = "observations_seq", allocationSize = Observation.ID_ALLOCATION_SIZE)
     private Long id;
 
     // Observation data
@@ -32,9 +41,23 @@ public class Observation {
     private Integer riskScore;
     private String riskLevel;
 
+    // Comma-separated template ids from the recommendations catalog, each followed by its
+    // ":"-separated values (see RecommendationCatalog)
+    @Column(length = 500)
+    private String recommendationIds;
+
+    // Legacy "|||"-joined texts, only set on rows not yet migrated to recommendationIds
     @Column(length = 2000)
     private String recommendations;
 
+    // app.risk.rules-version in effect when the risk was computed (null: scored before versions were recorded)
+    @Column(length = 20)
+    private String rulesVersion;
+
+    // Comma-separated metrics that deviated from the site's baseline (see AnomalyDetector), null if none
+    @Column(length = 100)
+    private String anomalousMetrics;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -48,8 +71,11 @@ public class Observation {
     @JsonIgnore
     private User createdBy;
 
+    // Imported historical observations keep their original date
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 }
@@ -0,0 +1,25 @@
+package com.safesite.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Catalog entry of a recommendation template (the text with its values replaced by {@code {}}).
+ * Observations reference recommendations by id plus values (see
+ * {@code Observation.recommendationIds}) instead of storing the texts.
+ */
+@Entity
+@Table(name = "recommendations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Recommendation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(unique = true, nullable = false, length = 1000)
+    private String text;
+}
@@ -7,7 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "sites")
+@Table(name = "sites", indexes = @Index(name = "idx_sites_project_id", columnList = "project_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,26 @@
+package com.safesite.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Hourly aggregate of the scored observations of a site.
+ */
+@Entity
+@Table(name = "site_risk_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SiteRiskRollup {
+
+    @EmbeddedId
+    private SiteRiskRollupId id;
+
+    private long observationCount;
+    private long riskScoreSum;
+    private int riskScoreMax;
+    private long highCount;
+    private long mediumCount;
+    private long lowCount;
+}
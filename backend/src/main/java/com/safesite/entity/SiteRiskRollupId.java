@@ -0,0 +1,24 @@
+package com.safesite.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SiteRiskRollupId implements Serializable {
+
+    @Column(name = "site_id", nullable = false)
+    private Long siteId;
+
+    // Start of the hour covered by the bucket
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+}
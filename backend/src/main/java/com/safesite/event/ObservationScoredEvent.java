@@ -0,0 +1,60 @@
+package com.safesite.event;
+
+import com.safesite.entity.Observation;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published once an observation has been persisted with its risk result, whether it was
+ * scored synchronously, in a batch or on the scoring pool. Listeners must stay cheap: they
+ * run on the thread that scored the observation.
+ * <p>
+ * {@code historical} observations come from bulk imports of past data: they count in
+ * aggregates but must not trigger live alerts.
+ */
+@Value
+@Builder
+public class ObservationScoredEvent {
+    Long observationId;
+    Long siteId;
+    LocalDateTime createdAt;
+    Double temperature;
+    Double humidity;
+    Double epiCompliance;
+    Double fatigue;
+    Double workingHours;
+    Integer workersCount;
+    Boolean hazardousMaterials;
+    String weatherConditions;
+    Integer riskScore;
+    String riskLevel;
+    List<String> recommendations;
+    boolean historical;
+
+    public static ObservationScoredEvent of(Observation observation, List<String> recommendations) {
+        return of(observation, recommendations, false);
+    }
+
+    public static ObservationScoredEvent of(Observation observation, List<String> recommendations, boolean historical) {
+        return ObservationScoredEvent.builder()
+                .observationId(observation.getId())
+                .siteId(observation.getSite().getId())
+                .createdAt(observation.getCreatedAt())
+                .temperature(observation.getTemperature())
+                .humidity(observation.getHumidity())
+                .epiCompliance(observation.getEpiCompliance())
+                .fatigue(observation.getFatigue())
+                .workingHours(observation.getWorkingHours())
+                .workersCount(observation.getWorkersCount())
+                .hazardousMaterials(observation.getHazardousMaterials())
+                .weatherConditions(observation.getWeatherConditions())
+                .riskScore(observation.getRiskScore())
+                .riskLevel(observation.getRiskLevel())
+                .recommendations(recommendations)
+                .historical(historical)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.safesite.repository;
+
+import com.safesite.entity.BatchJobChunk;
+import com.safesite.entity.BatchJobChunkId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Set;
+
+@Repository
+public interface BatchJobChunkRepository extends JpaRepository<BatchJobChunk, BatchJobChunkId> {
+    @Query("SELECT c.id.chunkIndex FROM BatchJobChunk c WHERE c.id.jobId = :jobId")
+    Set<Integer> findChunkIndexes(@Param("jobId") Long jobId);
+}
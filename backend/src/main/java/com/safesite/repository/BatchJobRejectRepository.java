@@ -0,0 +1,12 @@
+package com.safesite.repository;
+
+import com.safesite.entity.BatchJobReject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BatchJobRejectRepository extends JpaRepository<BatchJobReject, Long> {
+    List<BatchJobReject> findByJobIdOrderByLineNumberAsc(Long jobId);
+}
@@ -0,0 +1,44 @@
+package com.safesite.repository;
+
+import com.safesite.entity.BatchJob;
+import com.safesite.entity.JobStatus;
+import com.safesite.entity.JobType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BatchJobRepository extends JpaRepository<BatchJob, Long> {
+    List<BatchJob> findByTypeAndStatusIn(JobType type, Collection<JobStatus> statuses);
+
+    List<BatchJob> findByTypeOrderByIdDesc(JobType type);
+
+    /**
+     * Adds a committed chunk's counts; called inside the chunk transaction so the counters
+     * always match the chunk markers.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchJob j SET j.processedItems = j.processedItems + :processed, "
+            + "j.failedItems = j.failedItems + :failed WHERE j.id = :id")
+    int addProgress(@Param("id") Long id, @Param("processed") long processed, @Param("failed") long failed);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchJob j SET j.status = :status, j.startedAt = :startedAt, j.finishedAt = NULL, "
+            + "j.error = NULL WHERE j.id = :id")
+    int markStarted(@Param("id") Long id, @Param("status") JobStatus status, @Param("startedAt") LocalDateTime startedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchJob j SET j.status = :status, j.finishedAt = :finishedAt, j.error = :error WHERE j.id = :id")
+    int markFinished(@Param("id") Long id, @Param("status") JobStatus status,
+            @Param("finishedAt") LocalDateTime finishedAt, @Param("error") String error);
+}
@@ -0,0 +1,15 @@
+package com.safesite.repository;
+
+/**
+ * Projection of a chef with whether they are assigned to a given project, loaded in a
+ * single join query.
+ */
+public interface ChefAssignment {
+    Long getId();
+
+    String getFullName();
+
+    String getEmail();
+
+    boolean isAssigned();
+}
@@ -1,13 +1,56 @@
 package com.safesite.repository;
 
 import com.safesite.entity.Observation;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ObservationRepository extends JpaRepository<Observation, Long> {
+public interface ObservationRepository extends JpaRepository<Observation, Long>, ObservationRepositoryCustom {
+    @Query("SELECT o FROM Observation o JOIN FETCH o.site")
+    List<Observation> findAllWithSite();
+
+    @EntityGraph(attributePaths = "site")
     List<Observation> findBySiteId(Long siteId);
 
+    @EntityGraph(attributePaths = "site")
+    Optional<Observation> findWithSiteById(Long id);
+
     List<Observation> findByCreatedById(Long userId);
+
+    List<Observation> findByRiskLevel(String riskLevel);
+
+    long countByRiskLevelInAndCreatedAtGreaterThanEqual(Collection<String> riskLevels, LocalDateTime from);
+
+    /**
+     * The {@code perSite} most recent scored observations of every site, oldest first within
+     * each site, with the site's total number of scored observations, in a single statement.
+     */
+    @Query(value = "SELECT site_id AS \"siteId\", risk_score AS \"riskScore\", fatigue, "
+            + "epi_compliance AS \"epiCompliance\", created_at AS \"createdAt\", total AS \"siteTotal\" "
+            + "FROM (SELECT o.site_id, o.risk_score, o.fatigue, o.epi_compliance, o.created_at, o.id, "
+            + "ROW_NUMBER() OVER (PARTITION BY o.site_id ORDER BY o.created_at DESC, o.id DESC) AS rn, "
+            + "COUNT(*) OVER (PARTITION BY o.site_id) AS total "
+            + "FROM observations o WHERE o.risk_level IS NULL OR o.risk_level <> 'PENDING') recent "
+            + "WHERE rn <= :perSite ORDER BY site_id, created_at, id", nativeQuery = true)
+    List<TrendSample> findRecentTrendSamples(@Param("perSite") int perSite);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Observation o SET o.riskScore = :riskScore, o.riskLevel = :riskLevel, "
+            + "o.recommendationIds = :recommendationIds, o.recommendations = NULL, "
+            + "o.rulesVersion = :rulesVersion WHERE o.id = :id")
+    int updateRisk(@Param("id") Long id,
+            @Param("riskScore") Integer riskScore,
+            @Param("riskLevel") String riskLevel,
+            @Param("recommendationIds") String recommendationIds,
+            @Param("rulesVersion") String rulesVersion);
 }
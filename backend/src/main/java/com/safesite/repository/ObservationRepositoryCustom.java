@@ -0,0 +1,34 @@
+package com.safesite.repository;
+
+import com.safesite.dto.ObservationAnalyticsQuery;
+import com.safesite.dto.ObservationFilter;
+import com.safesite.entity.Observation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface ObservationRepositoryCustom {
+
+    /**
+     * Newest-first page of observations strictly after the {@code (createdAt, id)} keyset
+     * position, or from the start when {@code afterCreatedAt} is null. Sites are fetched in
+     * the same query.
+     */
+    List<Observation> findPage(ObservationFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+
+    /**
+     * Newest-first stream over a forward-only database cursor. Each observation is detached
+     * as it is read so the persistence context does not grow; the caller must consume the
+     * stream inside a transaction and close it.
+     */
+    Stream<Observation> streamAll(ObservationFilter filter);
+
+    /**
+     * Runs the aggregation as a single SQL {@code GROUP BY} and returns at most {@code maxGroups}
+     * rows, keyed by dimension and metric names. Unknown dimensions, metrics or buckets are
+     * rejected with {@link IllegalArgumentException}.
+     */
+    List<Map<String, Object>> aggregate(ObservationAnalyticsQuery query, int maxGroups);
+}
@@ -0,0 +1,192 @@
+package com.safesite.repository;
+
+import com.safesite.dto.ObservationAnalyticsQuery;
+import com.safesite.dto.ObservationFilter;
+import com.safesite.entity.Observation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+class ObservationRepositoryImpl implements ObservationRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // Whitelisted SQL of the analytics dimensions and metrics; user input never reaches the SQL text
+    private static final Map<String, String[]> DIMENSIONS = Map.of(
+            "project", new String[] { "s.project_id", "projectId", "p.name", "projectName" },
+            "site", new String[] { "o.site_id", "siteId", "s.name", "siteName" },
+            "riskLevel", new String[] { "o.risk_level", "riskLevel" },
+            "weather", new String[] { "o.weather_conditions", "weatherConditions" });
+    private static final Map<String, String> METRICS = Map.of(
+            "count", "COUNT(*)",
+            "avgRiskScore", "AVG(o.risk_score)",
+            "maxRiskScore", "MAX(o.risk_score)",
+            "avgFatigue", "AVG(o.fatigue)",
+            "belowEpiPct", "100.0 * SUM(CASE WHEN o.epi_compliance < :epiThreshold THEN 1 ELSE 0 END) "
+                    + "/ NULLIF(COUNT(o.epi_compliance), 0)");
+    private static final Set<String> BUCKETS = Set.of("hour", "day", "week", "month");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Observation> findPage(ObservationFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = select(filter, params);
+        if (afterCreatedAt != null) {
+            jpql.append(" AND (o.createdAt < :afterCreatedAt OR (o.createdAt = :afterCreatedAt AND o.id < :afterId))");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY o.createdAt DESC, o.id DESC");
+
+        return query(jpql, params)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Observation> streamAll(ObservationFilter filter) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = select(filter, params).append(" ORDER BY o.createdAt DESC, o.id DESC");
+
+        return query(jpql, params)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    @Override
+    public List<Map<String, Object>> aggregate(ObservationAnalyticsQuery query, int maxGroups) {
+        List<String> select = new ArrayList<>();
+        List<String> groupBy = new ArrayList<>();
+        boolean joinProject = false;
+        for (String dimension : query.getGroupBy()) {
+            if ("period".equals(dimension)) {
+                if (!BUCKETS.contains(query.getBucket())) {
+                    throw new IllegalArgumentException("Unsupported bucket: " + query.getBucket());
+                }
+                String expression = "date_trunc('" + query.getBucket() + "', o.created_at)";
+                select.add(expression + " AS \"period\"");
+                groupBy.add(expression);
+                continue;
+            }
+            String[] columns = DIMENSIONS.get(dimension);
+            if (columns == null) {
+                throw new IllegalArgumentException("Unsupported dimension: " + dimension);
+            }
+            for (int i = 0; i < columns.length; i += 2) {
+                select.add(columns[i] + " AS \"" + columns[i + 1] + "\"");
+                groupBy.add(columns[i]);
+            }
+            joinProject |= "project".equals(dimension);
+        }
+        boolean usesEpiThreshold = false;
+        for (String metric : query.getMetrics()) {
+            String expression = METRICS.get(metric);
+            if (expression == null) {
+                throw new IllegalArgumentException("Unsupported metric: " + metric);
+            }
+            select.add(expression + " AS \"" + metric + "\"");
+            usesEpiThreshold |= "belowEpiPct".equals(metric);
+        }
+        if (query.getMetrics().isEmpty()) {
+            throw new IllegalArgumentException("At least one metric is required");
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", select))
+                .append(" FROM observations o JOIN sites s ON s.id = o.site_id");
+        if (joinProject) {
+            sql.append(" JOIN projects p ON p.id = s.project_id");
+        }
+        sql.append(" WHERE 1 = 1");
+        if (query.getProjectId() != null) {
+            sql.append(" AND s.project_id = :projectId");
+            params.put("projectId", query.getProjectId());
+        }
+        if (query.getSiteId() != null) {
+            sql.append(" AND o.site_id = :siteId");
+            params.put("siteId", query.getSiteId());
+        }
+        if (query.getRiskLevel() != null) {
+            sql.append(" AND o.risk_level = :riskLevel");
+            params.put("riskLevel", query.getRiskLevel());
+        }
+        if (query.getWeatherConditions() != null) {
+            sql.append(" AND o.weather_conditions = :weatherConditions");
+            params.put("weatherConditions", query.getWeatherConditions());
+        }
+        if (query.getFrom() != null) {
+            sql.append(" AND o.created_at >= :from");
+            params.put("from", query.getFrom());
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND o.created_at < :to");
+            params.put("to", query.getTo());
+        }
+        if (usesEpiThreshold) {
+            params.put("epiThreshold", query.getEpiThreshold());
+        }
+        if (!groupBy.isEmpty()) {
+            sql.append(" GROUP BY ").append(String.join(", ", groupBy))
+                    .append(" ORDER BY ").append(String.join(", ", groupBy));
+        }
+
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString(), Tuple.class);
+        params.forEach(nativeQuery::setParameter);
+        nativeQuery.setMaxResults(maxGroups);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object result : nativeQuery.getResultList()) {
+            Tuple tuple = (Tuple) result;
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private StringBuilder select(ObservationFilter filter, Map<String, Object> params) {
+        StringBuilder jpql = new StringBuilder("SELECT o FROM Observation o JOIN FETCH o.site WHERE 1 = 1");
+        if (filter.getSiteId() != null) {
+            jpql.append(" AND o.site.id = :siteId");
+            params.put("siteId", filter.getSiteId());
+        }
+        if (filter.getRiskLevel() != null) {
+            jpql.append(" AND o.riskLevel = :riskLevel");
+            params.put("riskLevel", filter.getRiskLevel());
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" AND o.createdAt >= :from");
+            params.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" AND o.createdAt < :to");
+            params.put("to", filter.getTo());
+        }
+        return jpql;
+    }
+
+    private TypedQuery<Observation> query(StringBuilder jpql, Map<String, Object> params) {
+        TypedQuery<Observation> query = entityManager.createQuery(jpql.toString(), Observation.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
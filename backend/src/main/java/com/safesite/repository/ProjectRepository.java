@@ -1,9 +1,28 @@
 package com.safesite.repository;
 
 import com.safesite.entity.Project;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+
+    @Query("SELECT DISTINCT p FROM Project p LEFT JOIN FETCH p.sites")
+    List<Project> findAllWithSites();
+
+    @EntityGraph(attributePaths = "sites")
+    Optional<Project> findWithSitesById(Long id);
+
+    long countByIdIn(Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.location AS location, COUNT(s) AS sitesCount "
+            + "FROM User u JOIN u.assignedProjects p LEFT JOIN p.sites s "
+            + "WHERE u.email = :email GROUP BY p.id, p.name, p.location")
+    List<ProjectSummary> findSummariesByUserEmail(@Param("email") String email);
 }
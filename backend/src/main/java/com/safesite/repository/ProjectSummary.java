@@ -0,0 +1,14 @@
+package com.safesite.repository;
+
+/**
+ * Projection of a project with its number of sites, loaded in a single aggregate query.
+ */
+public interface ProjectSummary {
+    Long getId();
+
+    String getName();
+
+    String getLocation();
+
+    long getSitesCount();
+}
@@ -0,0 +1,11 @@
+package com.safesite.repository;
+
+import com.safesite.entity.Recommendation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface RecommendationRepository extends JpaRepository<Recommendation, Integer> {
+    Optional<Recommendation> findByText(String text);
+}
@@ -1,11 +1,38 @@
 package com.safesite.repository;
 
 import com.safesite.entity.Site;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SiteRepository extends JpaRepository<Site, Long> {
     List<Site> findByProjectId(Long projectId);
+
+    List<Site> findByNameIn(Collection<String> names);
+
+    List<Site> findByProjectIdAndNameIn(Long projectId, Collection<String> names);
+
+    List<Site> findByProjectIdAndIdIn(Long projectId, Collection<Long> ids);
+
+    @Query("SELECT s.project.id FROM Site s WHERE s.id = :id")
+    Optional<Long> findProjectIdById(@Param("id") Long id);
+
+    @Query("SELECT s FROM Site s JOIN FETCH s.project")
+    List<Site> findAllWithProject();
+
+    @EntityGraph(attributePaths = "project")
+    Optional<Site> findWithProjectById(Long id);
+
+    @EntityGraph(attributePaths = "project")
+    List<Site> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "project")
+    List<Site> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
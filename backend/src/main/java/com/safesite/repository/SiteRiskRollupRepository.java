@@ -0,0 +1,42 @@
+package com.safesite.repository;
+
+import com.safesite.entity.SiteRiskRollup;
+import com.safesite.entity.SiteRiskRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SiteRiskRollupRepository extends JpaRepository<SiteRiskRollup, SiteRiskRollupId> {
+
+    @Query("SELECT r FROM SiteRiskRollup r WHERE r.id.siteId = :siteId "
+            + "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to ORDER BY r.id.bucketStart")
+    List<SiteRiskRollup> findSeries(@Param("siteId") Long siteId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("SELECT r FROM SiteRiskRollup r WHERE r.id.bucketStart >= :from")
+    List<SiteRiskRollup> findAllSince(@Param("from") LocalDateTime from);
+
+    /**
+     * Builds the hourly rollups of every already scored observation in a single statement.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO site_risk_rollups (site_id, bucket_start, observation_count, risk_score_sum, "
+            + "risk_score_max, high_count, medium_count, low_count) "
+            + "SELECT site_id, date_trunc('hour', created_at), COUNT(*), COALESCE(SUM(risk_score), 0), "
+            + "COALESCE(MAX(risk_score), 0), "
+            + "SUM(CASE WHEN risk_level IN ('ÉLEVÉ', 'HIGH') THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN risk_level IN ('MOYEN', 'MEDIUM') THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN risk_level IN ('ÉLEVÉ', 'HIGH', 'MOYEN', 'MEDIUM') THEN 0 ELSE 1 END) "
+            + "FROM observations WHERE risk_level IS NULL OR risk_level <> 'PENDING' "
+            + "GROUP BY site_id, date_trunc('hour', created_at)", nativeQuery = true)
+    int backfillFromObservations();
+}
@@ -0,0 +1,21 @@
+package com.safesite.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the readings the per-site trend tracker replays on startup.
+ */
+public interface TrendSample {
+    Long getSiteId();
+
+    Integer getRiskScore();
+
+    Double getFatigue();
+
+    Double getEpiCompliance();
+
+    LocalDateTime getCreatedAt();
+
+    // Scored observations of the site, including those older than the replayed window
+    Long getSiteTotal();
+}
@@ -2,8 +2,12 @@ package com.safesite.repository;
 
 import com.safesite.entity.Role;
 import com.safesite.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +18,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     List<User> findByRole(Role role);
+
+    long countByRole(Role role);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    long countByIdIn(Collection<Long> ids);
+
+    /**
+     * Users of a role with their membership in one project: the join is restricted to that
+     * project, so each user yields exactly one row.
+     */
+    @Query("SELECT u.id AS id, u.fullName AS fullName, u.email AS email, "
+            + "CASE WHEN p.id IS NULL THEN false ELSE true END AS assigned "
+            + "FROM User u LEFT JOIN u.assignedProjects p ON p.id = :projectId "
+            + "WHERE u.role = :role ORDER BY u.id")
+    List<ChefAssignment> findAssignmentsByRole(@Param("role") Role role, @Param("projectId") Long projectId);
 }
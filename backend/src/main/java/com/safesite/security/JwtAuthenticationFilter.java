@@ -1,7 +1,9 @@
 package com.safesite.security;
 
 import com.safesite.entity.User;
-import com.safesite.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,30 +18,41 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collections;
 
+/**
+ * Authenticates Bearer tokens. The cost of the filter itself (token parsing and principal
+ * lookup, excluding the rest of the chain) is timed as {@code safesite.jwt.filter}, tagged
+ * with result=none|authenticated|invalid|unknown_user.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
 
+        Timer.Sample sample = Timer.start(meterRegistry);
         String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            stop(sample, "none");
             filterChain.doFilter(request, response);
             return;
         }
 
         String token = authHeader.substring(7);
 
-        if (jwtService.validateToken(token)) {
-            String email = jwtService.getEmailFromToken(token);
-            User user = userRepository.findByEmail(email).orElse(null);
+        Claims claims = jwtService.parseClaims(token).orElse(null);
+        String result = "invalid";
+
+        if (claims != null) {
+            result = "unknown_user";
+            User user = userPrincipalCache.findByEmail(claims.getSubject()).orElse(null);
 
             if (user != null) {
                 var authorities = Collections.singletonList(
@@ -49,9 +62,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         user, null, authorities);
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                result = "authenticated";
             }
         }
 
+        stop(sample, result);
         filterChain.doFilter(request, response);
     }
+
+    private void stop(Timer.Sample sample, String result) {
+        sample.stop(Timer.builder("safesite.jwt.filter")
+                .description("Time spent authenticating the request token")
+                .tag("result", result)
+                .register(meterRegistry));
+    }
 }
@@ -0,0 +1,61 @@
+package com.safesite.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.safesite.entity.User;
+import com.safesite.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of authenticated users keyed by JWT subject (email), so authenticated
+ * requests do not each cost a {@code findByEmail} round-trip. Entries must be evicted
+ * whenever a user is updated, deleted or has their password reset.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${app.jwt.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.jwt.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<String, User> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public Optional<User> findByEmail(String email) {
+        User cached = cache.getIfPresent(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<User> user = userRepository.findByEmail(email);
+        user.ifPresent(u -> cache.put(email, u));
+        return user;
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,209 @@
+package com.safesite.service;
+
+import com.safesite.dto.RiskAlert;
+import com.safesite.entity.Role;
+import com.safesite.entity.User;
+import com.safesite.event.ObservationScoredEvent;
+import com.safesite.repository.SiteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out hub of the live risk alert stream.
+ * <p>
+ * Subscribers are async {@link SseEmitter}s, so idle connections hold no thread. Each
+ * subscriber has a small bounded buffer drained by the shared {@code alertExecutor}; when a
+ * slow consumer's buffer is full the oldest alert is dropped and the subscriber is told how
+ * many it missed. Scored observations are handed off to the executor, so the observation
+ * write path never waits on subscribers.
+ * <p>
+ * Subscribers only receive alerts of the sites they may see ({@link SiteAccessIndex}),
+ * checked on delivery so assignment changes apply to open streams; admins see every site.
+ */
+@Service
+@Slf4j
+public class AlertHub {
+
+    private final SiteRepository siteRepository;
+    private final SiteAccessIndex siteAccessIndex;
+    private final ThreadPoolTaskExecutor alertExecutor;
+
+    @Value("${app.alerts.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.alerts.subscriber-buffer:32}")
+    private int subscriberBuffer;
+
+    @Value("${app.alerts.emitter-timeout-ms:3600000}")
+    private long emitterTimeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Sites never move between projects, so the mapping is cached for good
+    private final Map<Long, Long> projectIdBySite = new ConcurrentHashMap<>();
+
+    public AlertHub(SiteRepository siteRepository, SiteAccessIndex siteAccessIndex,
+            @Qualifier("alertExecutor") ThreadPoolTaskExecutor alertExecutor) {
+        this.siteRepository = siteRepository;
+        this.siteAccessIndex = siteAccessIndex;
+        this.alertExecutor = alertExecutor;
+    }
+
+    /**
+     * Registers a subscriber for the alerts of the sites the user may see, optionally
+     * restricted to a project and/or a site. Returns {@code null} when the hub is full.
+     */
+    public SseEmitter subscribe(User user, Long projectId, Long siteId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        // Null: every site
+        Long userId = user.getRole() == Role.ADMIN ? null : user.getId();
+        Subscriber subscriber = new Subscriber(emitter, userId, projectId, siteId, subscriberBuffer);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onObservationScored(ObservationScoredEvent event) {
+        if (event.isHistorical()
+                || !DashboardStatsService.ALERT_LEVELS.contains(event.getRiskLevel())
+                || subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            alertExecutor.execute(() -> fanOut(event));
+        } catch (TaskRejectedException e) {
+            log.warn("Alert hub saturated, dropping alert for observation {}", event.getObservationId());
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${app.alerts.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat = true;
+            schedule(subscriber);
+        }
+    }
+
+    private void fanOut(ObservationScoredEvent event) {
+        Long projectId = projectIdBySite.computeIfAbsent(event.getSiteId(),
+                id -> siteRepository.findProjectIdById(id).orElse(null));
+        RiskAlert alert = RiskAlert.builder()
+                .observationId(event.getObservationId())
+                .siteId(event.getSiteId())
+                .projectId(projectId)
+                .riskScore(event.getRiskScore())
+                .riskLevel(event.getRiskLevel())
+                .recommendations(event.getRecommendations())
+                .createdAt(event.getCreatedAt())
+                .build();
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(alert)
+                    && (subscriber.userId == null || siteAccessIndex.canAccess(subscriber.userId, alert.getSiteId()))) {
+                subscriber.offer(alert);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                alertExecutor.execute(() -> drain(subscriber));
+            } catch (TaskRejectedException e) {
+                // Retried on the next alert or heartbeat
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            int dropped = subscriber.dropped.getAndSet(0);
+            if (dropped > 0) {
+                subscriber.emitter.send(SseEmitter.event().name("dropped").data(dropped));
+            }
+            RiskAlert alert;
+            while ((alert = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name("alert")
+                        .id(String.valueOf(alert.getObservationId()))
+                        .data(alert, MediaType.APPLICATION_JSON));
+            }
+            if (subscriber.heartbeat) {
+                subscriber.heartbeat = false;
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An alert may have been queued after the last poll but before draining was reset
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final Long projectId;
+        private final Long siteId;
+        private final ArrayBlockingQueue<RiskAlert> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicInteger dropped = new AtomicInteger();
+        private volatile boolean heartbeat;
+
+        private Subscriber(SseEmitter emitter, Long userId, Long projectId, Long siteId, int buffer) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.projectId = projectId;
+            this.siteId = siteId;
+            this.queue = new ArrayBlockingQueue<>(buffer);
+        }
+
+        boolean accepts(RiskAlert alert) {
+            return (siteId == null || siteId.equals(alert.getSiteId()))
+                    && (projectId == null || projectId.equals(alert.getProjectId()));
+        }
+
+        void offer(RiskAlert alert) {
+            while (!queue.offer(alert)) {
+                if (queue.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.safesite.service;
+
+import com.safesite.dto.ObservationRequest;
+import com.safesite.entity.Observation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online anomaly detection against each site's own baseline. For every metric a site keeps
+ * a running count, mean and sum of squared deviations (Welford's algorithm): constant memory
+ * per site, O(1) per observation. An observation is flagged on the metrics whose z-score
+ * against the baseline so far exceeds {@code app.anomaly.z-threshold}, once the site has at
+ * least {@code app.anomaly.min-samples} readings of that metric.
+ * <p>
+ * Baselines are seeded on startup with one aggregate query per metric. Scoring a reading
+ * does not change the baseline: live observations are folded in with {@link #record} once
+ * they are saved, so rejected rows and imports never move it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnomalyDetector {
+
+    // Metric names as exposed in ObservationResponse.anomalousMetrics, with their columns
+    static final String[] METRICS = { "temperature", "humidity", "fatigue", "workingHours", "workersCount" };
+    private static final String[] COLUMNS = { "temperature", "humidity", "fatigue", "working_hours", "workers_count" };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.anomaly.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.anomaly.z-threshold:3.0}")
+    private double zThreshold;
+
+    @Value("${app.anomaly.min-samples:30}")
+    private long minSamples;
+
+    private final Map<Long, SiteBaseline> baselines = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        for (int m = 0; m < METRICS.length; m++) {
+            int metric = m;
+            String column = COLUMNS[m];
+            jdbcTemplate.query("SELECT site_id, COUNT(" + column + "), AVG(" + column + "), VAR_POP(" + column + ") "
+                    + "FROM observations WHERE " + column + " IS NOT NULL GROUP BY site_id", rs -> {
+                        long count = rs.getLong(2);
+                        double mean = rs.getDouble(3);
+                        double variance = rs.getDouble(4);
+                        baseline(rs.getLong(1)).seed(metric, count, mean, variance * count);
+                    });
+        }
+        log.info("Seeded anomaly baselines of {} sites", baselines.size());
+    }
+
+    /**
+     * Scores the readings against the site's baseline, leaving it unchanged. Returns the
+     * names of the anomalous metrics, or {@code null} when there are none.
+     */
+    public String score(Long siteId, ObservationRequest request) {
+        if (!enabled || siteId == null) {
+            return null;
+        }
+        SiteBaseline baseline = baselines.get(siteId);
+        if (baseline == null) {
+            return null;
+        }
+        List<String> anomalous = baseline.score(valuesOf(request.getTemperature(), request.getHumidity(),
+                request.getFatigue(), request.getWorkingHours(), request.getWorkersCount()), zThreshold, minSamples);
+        return anomalous.isEmpty() ? null : String.join(",", anomalous);
+    }
+
+    /**
+     * Folds the readings of a saved live observation into its site's baseline.
+     */
+    public void record(Observation observation) {
+        if (!enabled || observation.getSite() == null || observation.getSite().getId() == null) {
+            return;
+        }
+        baseline(observation.getSite().getId()).fold(valuesOf(observation.getTemperature(),
+                observation.getHumidity(), observation.getFatigue(), observation.getWorkingHours(),
+                observation.getWorkersCount()));
+    }
+
+    public void evict(Long siteId) {
+        baselines.remove(siteId);
+    }
+
+    private SiteBaseline baseline(Long siteId) {
+        return baselines.computeIfAbsent(siteId, id -> new SiteBaseline());
+    }
+
+    private static double[] valuesOf(Double temperature, Double humidity, Double fatigue,
+            Double workingHours, Integer workersCount) {
+        return new double[] {
+                valueOf(temperature),
+                valueOf(humidity),
+                valueOf(fatigue),
+                valueOf(workingHours),
+                workersCount != null ? workersCount : Double.NaN };
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    /**
+     * Welford accumulators of one site, one slot per metric. Updates are a few arithmetic
+     * operations, so a plain monitor is enough.
+     */
+    private static final class SiteBaseline {
+        private final long[] count = new long[METRICS.length];
+        private final double[] mean = new double[METRICS.length];
+        private final double[] m2 = new double[METRICS.length];
+
+        synchronized void seed(int metric, long n, double mu, double sumSquares) {
+            count[metric] = n;
+            mean[metric] = mu;
+            m2[metric] = sumSquares;
+        }
+
+        synchronized List<String> score(double[] values, double zThreshold, long minSamples) {
+            List<String> anomalous = new ArrayList<>(0);
+            for (int m = 0; m < values.length; m++) {
+                double x = values[m];
+                if (Double.isNaN(x) || count[m] < minSamples || count[m] <= 1) {
+                    continue;
+                }
+                double stdDev = Math.sqrt(m2[m] / count[m]);
+                if (stdDev > 0 && Math.abs(x - mean[m]) / stdDev > zThreshold) {
+                    anomalous.add(METRICS[m]);
+                }
+            }
+            return anomalous;
+        }
+
+        synchronized void fold(double[] values) {
+            for (int m = 0; m < values.length; m++) {
+                double x = values[m];
+                if (Double.isNaN(x)) {
+                    continue;
+                }
+                count[m]++;
+                double delta = x - mean[m];
+                mean[m] += delta / count[m];
+                m2[m] += delta * (x - mean[m]);
+            }
+        }
+    }
+}
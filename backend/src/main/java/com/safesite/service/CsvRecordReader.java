@@ -0,0 +1,107 @@
+package com.safesite.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: splits the input into records, honouring quoted fields that
+ * contain separators, quotes ({@code ""}) or line breaks, and keeps track of the line each
+ * record starts on. Splitting records is cheap, so it is done on one thread while the
+ * records themselves are parsed elsewhere.
+ */
+public class CsvRecordReader implements Closeable {
+
+    private final BufferedReader reader;
+    private long line;
+    private long recordLine;
+    private String recordText;
+
+    public CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next non-blank record; returns {@code null} at the end of the input.
+     */
+    public List<String> next() throws IOException {
+        while (true) {
+            String first = reader.readLine();
+            if (first == null) {
+                return null;
+            }
+            line++;
+            if (first.isBlank()) {
+                continue;
+            }
+            recordLine = line;
+            StringBuilder text = new StringBuilder(first);
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            String current = first;
+            int i = 0;
+            while (true) {
+                if (i == current.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // Line break inside a quoted field
+                    current = reader.readLine();
+                    if (current == null) {
+                        break;
+                    }
+                    line++;
+                    text.append('\n').append(current);
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = current.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < current.length() && current.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            recordText = text.toString();
+            return fields;
+        }
+    }
+
+    /**
+     * Line number (1-based) on which the last record returned by {@link #next()} starts.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Original text of the last record returned by {@link #next()}.
+     */
+    public String getRecordText() {
+        return recordText;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
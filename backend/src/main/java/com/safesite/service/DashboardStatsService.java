@@ -0,0 +1,121 @@
+package com.safesite.service;
+
+import com.safesite.entity.Role;
+import com.safesite.event.ObservationScoredEvent;
+import com.safesite.repository.ObservationRepository;
+import com.safesite.repository.ProjectRepository;
+import com.safesite.repository.SiteRepository;
+import com.safesite.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Dashboard counters maintained incrementally, so {@code /api/stats} is answered without
+ * touching the database. Creations increment the counters; deletions (rare, and cascading
+ * to sites and observations) trigger a {@link #reconcile()} with aggregate SQL, which also
+ * runs at startup and periodically to correct any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStatsService {
+
+    /** Risk levels counted as alerts ("HIGH" is kept for rows scored by older ML versions). */
+    public static final List<String> ALERT_LEVELS = List.of(RuleBasedRiskScorer.LEVEL_HIGH, "HIGH");
+
+    private final ProjectRepository projectRepository;
+    private final SiteRepository siteRepository;
+    private final UserRepository userRepository;
+    private final ObservationRepository observationRepository;
+
+    private final AtomicLong totalProjects = new AtomicLong();
+    private final AtomicLong totalSites = new AtomicLong();
+    private final AtomicLong totalManagers = new AtomicLong();
+    private final AtomicLong totalObservations = new AtomicLong();
+    private final AtomicReference<DayCounter> todayAlerts = new AtomicReference<>(new DayCounter(LocalDate.now(), 0));
+
+    public Map<String, Object> getDashboardStats() {
+        return Map.of(
+                "totalProjects", totalProjects.get(),
+                "totalSites", totalSites.get(),
+                "totalManagers", totalManagers.get(),
+                "totalObservations", totalObservations.get(),
+                "todayAlerts", currentDay().count.get());
+    }
+
+    public void onProjectCreated() {
+        totalProjects.incrementAndGet();
+    }
+
+    public void onSiteCreated() {
+        totalSites.incrementAndGet();
+    }
+
+    public void onUserCreated(Role role) {
+        if (role == Role.CHEF) {
+            totalManagers.incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onObservationScored(ObservationScoredEvent event) {
+        totalObservations.incrementAndGet();
+        if (ALERT_LEVELS.contains(event.getRiskLevel())
+                && event.getCreatedAt() != null
+                && event.getCreatedAt().toLocalDate().equals(LocalDate.now())) {
+            currentDay().count.incrementAndGet();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        totalProjects.set(projectRepository.count());
+        totalSites.set(siteRepository.count());
+        totalManagers.set(userRepository.countByRole(Role.CHEF));
+        totalObservations.set(observationRepository.count());
+        long alerts = observationRepository.countByRiskLevelInAndCreatedAtGreaterThanEqual(
+                ALERT_LEVELS, today.atStartOfDay());
+        todayAlerts.set(new DayCounter(today, alerts));
+        log.debug("Dashboard stats reconciled: {}", getDashboardStats());
+    }
+
+    /**
+     * Returns the alert counter of the current day, rolling over to a fresh one at midnight.
+     */
+    private DayCounter currentDay() {
+        LocalDate today = LocalDate.now();
+        DayCounter current = todayAlerts.get();
+        while (!current.day.equals(today)) {
+            DayCounter next = new DayCounter(today, 0);
+            if (todayAlerts.compareAndSet(current, next)) {
+                return next;
+            }
+            current = todayAlerts.get();
+        }
+        return current;
+    }
+
+    private static final class DayCounter {
+        private final LocalDate day;
+        private final AtomicLong count;
+
+        private DayCounter(LocalDate day, long count) {
+            this.day = day;
+            this.count = new AtomicLong(count);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.safesite.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker guarding calls to the ML service.
+ * <p>
+ * CLOSED lets every call through. After {@code failure-threshold} consecutive failures it
+ * goes OPEN and rejects calls for {@code open-duration-ms}. It then goes HALF_OPEN and lets a
+ * single probe through: success closes the circuit, failure re-opens it.
+ * <p>
+ * The probe belongs to the thread that obtained it (calls are made on the caller's thread).
+ * Only that thread releases it or moves the circuit out of HALF_OPEN; outcomes reported late
+ * by calls that started while the circuit was still CLOSED are ignored once it has opened.
+ */
+@Component
+@Slf4j
+public class MlCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    @Value("${app.ml-service.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${app.ml-service.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    private volatile State state = State.CLOSED;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+    // Thread holding the HALF_OPEN probe, null when none is in flight
+    private final AtomicReference<Thread> probeOwner = new AtomicReference<>();
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    /**
+     * Returns whether a call may go to the ML service. Callers that get {@code true} must
+     * report the outcome with {@link #recordSuccess()} or {@link #recordFailure()}.
+     */
+    public boolean allowRequest() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt.get() >= openDurationMs) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN && probeOwner.compareAndSet(null, Thread.currentThread())) {
+            return true;
+        }
+        rejectedCalls.incrementAndGet();
+        return false;
+    }
+
+    public void recordSuccess() {
+        if (ownsProbe()) {
+            // Closed before the probe is released, so no second probe can start in between
+            consecutiveFailures.set(0);
+            state = State.CLOSED;
+            log.info("ML service circuit breaker closed");
+            probeOwner.set(null);
+        } else if (state == State.CLOSED) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    public void recordFailure() {
+        if (ownsProbe()) {
+            int failures = consecutiveFailures.incrementAndGet();
+            openedAt.set(System.currentTimeMillis());
+            state = State.OPEN;
+            log.warn("ML service circuit breaker re-opened after a failed probe ({} consecutive failures)", failures);
+            probeOwner.set(null);
+        } else if (state == State.CLOSED) {
+            int failures = consecutiveFailures.incrementAndGet();
+            if (failures >= failureThreshold) {
+                openedAt.set(System.currentTimeMillis());
+                state = State.OPEN;
+                log.warn("ML service circuit breaker opened after {} consecutive failures", failures);
+            }
+        }
+    }
+
+    /**
+     * Gives back a permit obtained from {@link #allowRequest()} without a call having been made.
+     * Only releases the probe if the calling thread holds it.
+     */
+    public void releaseProbe() {
+        probeOwner.compareAndSet(Thread.currentThread(), null);
+    }
+
+    private boolean ownsProbe() {
+        return probeOwner.get() == Thread.currentThread();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+}
@@ -0,0 +1,62 @@
+package com.safesite.service;
+
+import com.safesite.dto.RiskFeatures;
+import com.safesite.dto.RiskPredictionResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scores observations by calling the FastAPI {@code /predict} endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MlServiceRiskScorer implements RiskScorer {
+
+    private final RestTemplate restTemplate;
+
+    @Value("${app.ml-service.url}")
+    private String mlServiceUrl;
+
+    @Override
+    public RiskPredictionResponse score(RiskFeatures features) {
+        String url = mlServiceUrl + "/predict";
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("temperature", features.getTemperature());
+        requestBody.put("humidity", features.getHumidity());
+        requestBody.put("epi_compliance", features.getEpiCompliance());
+        requestBody.put("fatigue", features.getFatigue());
+        requestBody.put("working_hours", features.getWorkingHours());
+        requestBody.put("workers_count", features.getWorkersCount());
+        requestBody.put("hazardous_materials", features.isHazardousMaterials());
+        requestBody.put("weather_conditions", features.getWeatherConditions());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+
+        log.info("Sending risk analysis request to ML service: {}", requestBody);
+
+        ResponseEntity<RiskPredictionResponse> response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                entity,
+                RiskPredictionResponse.class);
+
+        log.info("Received risk analysis response: {}", response.getBody());
+
+        if (response.getBody() == null) {
+            throw new IllegalStateException("Empty response from ML service");
+        }
+        return response.getBody();
+    }
+}
@@ -0,0 +1,42 @@
+package com.safesite.service;
+
+import com.safesite.dto.ObservationAnalyticsQuery;
+import com.safesite.repository.ObservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Observation breakdowns for analysts. The aggregation runs entirely in the database
+ * (one {@code GROUP BY} statement), so the response size depends on the number of groups,
+ * not on the number of observations.
+ */
+@Service
+@RequiredArgsConstructor
+public class ObservationAnalyticsService {
+
+    private final ObservationRepository observationRepository;
+
+    @Value("${app.analytics.max-groups:10000}")
+    private int maxGroups;
+
+    public Map<String, Object> aggregate(ObservationAnalyticsQuery query) {
+        // One extra row tells whether the result was cut
+        List<Map<String, Object>> rows = observationRepository.aggregate(query, maxGroups + 1);
+        boolean truncated = rows.size() > maxGroups;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("groupBy", query.getGroupBy());
+        result.put("metrics", query.getMetrics());
+        if (query.getGroupBy().contains("period")) {
+            result.put("bucket", query.getBucket());
+        }
+        result.put("rows", truncated ? rows.subList(0, maxGroups) : rows);
+        result.put("truncated", truncated);
+        return result;
+    }
+}
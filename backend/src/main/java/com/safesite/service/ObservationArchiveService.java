@@ -0,0 +1,324 @@
+package com.safesite.service;
+
+import com.safesite.archive.ArchiveSegment;
+import com.safesite.dto.ArchiveMonthSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Archival tier for historical observations: every complete month older than
+ * {@code app.archive.min-age-days} is compacted into one {@link ArchiveSegment} file per site
+ * under {@code app.archive.dir} ({@code site-<id>/<yyyy-MM>.col}).
+ * <p>
+ * The database stays the source of truth and the archive can be rebuilt from it at any time.
+ * Compaction rewrites a segment when the row count of its site-month changed; in-place edits
+ * of archived rows (e.g. re-scoring) must call {@link #rebuild()}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ObservationArchiveService {
+
+    private static final List<String> HIGH_LEVELS = List.of("ÉLEVÉ", "HIGH");
+    private static final List<String> MEDIUM_LEVELS = List.of("MOYEN", "MEDIUM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.dir:data/archive}")
+    private String archiveDir;
+
+    @Value("${app.archive.min-age-days:90}")
+    private int minAgeDays;
+
+    @Value("${app.archive.epi-threshold:85}")
+    private double epiThreshold;
+
+    private final Map<Path, ArchiveSegment> openSegments = new ConcurrentHashMap<>();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        compact();
+    }
+
+    /**
+     * Writes the segments of archivable site-months that are missing or whose row count
+     * no longer matches the database.
+     */
+    @Scheduled(fixedDelayString = "${app.archive.compact-interval-ms:86400000}",
+            initialDelayString = "${app.archive.compact-interval-ms:86400000}")
+    public void compact() {
+        if (enabled) {
+            run(false);
+        }
+    }
+
+    /**
+     * Rewrites every segment from the database.
+     */
+    public Map<String, Object> rebuild() {
+        return run(true);
+    }
+
+    private Map<String, Object> run(boolean force) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (!compacting.compareAndSet(false, true)) {
+            result.put("status", "already running");
+            return result;
+        }
+        try {
+            LocalDate cutoff = archiveCutoff();
+            List<Object[]> months = jdbcTemplate.query(
+                    "SELECT site_id, EXTRACT(YEAR FROM created_at), EXTRACT(MONTH FROM created_at), COUNT(*) "
+                            + "FROM observations WHERE created_at < ? "
+                            + "GROUP BY site_id, EXTRACT(YEAR FROM created_at), EXTRACT(MONTH FROM created_at)",
+                    (rs, row) -> new Object[] { rs.getLong(1),
+                            YearMonth.of(rs.getInt(2), rs.getInt(3)), rs.getLong(4) },
+                    Timestamp.valueOf(cutoff.atStartOfDay()));
+
+            int written = 0;
+            Set<Path> expected = new HashSet<>();
+            for (Object[] month : months) {
+                long siteId = (Long) month[0];
+                YearMonth yearMonth = (YearMonth) month[1];
+                long rows = (Long) month[2];
+                Path path = segmentPath(siteId, yearMonth);
+                expected.add(path);
+                if (force || !isCurrent(path, rows)) {
+                    writeSegment(siteId, yearMonth, path);
+                    written++;
+                }
+            }
+            int removed = removeOrphans(expected);
+            if (written > 0 || removed > 0) {
+                log.info("Archived {} site-months of observations older than {}, removed {} orphan segments",
+                        written, cutoff, removed);
+            }
+            result.put("status", "done");
+            result.put("archivedBefore", cutoff);
+            result.put("siteMonths", months.size());
+            result.put("segmentsWritten", written);
+            result.put("segmentsRemoved", removed);
+            return result;
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * Monthly summaries of a site read from the archive, between two months (inclusive).
+     */
+    public List<ArchiveMonthSummary> getMonthlySummaries(Long siteId, YearMonth from, YearMonth to) {
+        List<ArchiveMonthSummary> summaries = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            Path path = segmentPath(siteId, month);
+            if (Files.exists(path)) {
+                summaries.add(summarize(segment(path)));
+            }
+        }
+        return summaries;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Number and size of the segments on disk, and the current cutoff.
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("dir", Paths.get(archiveDir).toAbsolutePath().toString());
+        status.put("archivedBefore", archiveCutoff());
+        int segments = 0;
+        long bytes = 0;
+        Path root = Paths.get(archiveDir);
+        if (Files.isDirectory(root)) {
+            try (DirectoryStream<Path> sites = Files.newDirectoryStream(root, "site-*")) {
+                for (Path site : sites) {
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(site, "*.col")) {
+                        for (Path file : files) {
+                            segments++;
+                            bytes += Files.size(file);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        status.put("segments", segments);
+        status.put("bytes", bytes);
+        return status;
+    }
+
+    // Tight loops over the mapped primitive columns: no objects are created per row
+    private ArchiveMonthSummary summarize(ArchiveSegment segment) {
+        boolean[] high = new boolean[segment.dictionarySize()];
+        boolean[] medium = new boolean[segment.dictionarySize()];
+        for (int code = 0; code < high.length; code++) {
+            high[code] = HIGH_LEVELS.contains(segment.decode(code));
+            medium[code] = MEDIUM_LEVELS.contains(segment.decode(code));
+        }
+
+        long scored = 0;
+        long scoreSum = 0;
+        int scoreMax = Integer.MIN_VALUE;
+        long highCount = 0;
+        long mediumCount = 0;
+        long fatigueCount = 0;
+        double fatigueSum = 0;
+        long epiCount = 0;
+        long belowEpi = 0;
+        int n = segment.getRowCount();
+        for (int row = 0; row < n; row++) {
+            int score = segment.riskScore(row);
+            if (score != ArchiveSegment.NULL_INT) {
+                scored++;
+                scoreSum += score;
+                scoreMax = Math.max(scoreMax, score);
+            }
+            int level = segment.riskLevel(row);
+            if (level != ArchiveSegment.NULL_CODE) {
+                if (high[level]) {
+                    highCount++;
+                } else if (medium[level]) {
+                    mediumCount++;
+                }
+            }
+            double fatigue = segment.fatigue(row);
+            if (!Double.isNaN(fatigue)) {
+                fatigueCount++;
+                fatigueSum += fatigue;
+            }
+            double epi = segment.epiCompliance(row);
+            if (!Double.isNaN(epi)) {
+                epiCount++;
+                if (epi < epiThreshold) {
+                    belowEpi++;
+                }
+            }
+        }
+
+        return ArchiveMonthSummary.builder()
+                .siteId(segment.getSiteId())
+                .month(segment.getMonth().toString())
+                .count(n)
+                .meanRiskScore(scored > 0 ? (double) scoreSum / scored : null)
+                .maxRiskScore(scored > 0 ? scoreMax : null)
+                .highCount(highCount)
+                .mediumCount(mediumCount)
+                .lowCount(n - highCount - mediumCount)
+                .meanFatigue(fatigueCount > 0 ? fatigueSum / fatigueCount : null)
+                .belowEpiThresholdRatio(epiCount > 0 ? (double) belowEpi / epiCount : null)
+                .build();
+    }
+
+    // One site-month is small enough to be read in a single result set
+    private void writeSegment(long siteId, YearMonth month, Path path) {
+        ArchiveSegment.Writer writer = new ArchiveSegment.Writer(siteId, month);
+        jdbcTemplate.query("SELECT id, created_at, risk_score, risk_level, temperature, humidity, epi_compliance, "
+                        + "fatigue, working_hours, workers_count, hazardous_materials, weather_conditions "
+                        + "FROM observations WHERE site_id = ? AND created_at >= ? AND created_at < ? "
+                        + "ORDER BY created_at, id",
+                rs -> {
+                    writer.add(rs.getLong(1),
+                            rs.getTimestamp(2).toLocalDateTime(),
+                            rs.getObject(3, Integer.class),
+                            rs.getString(4),
+                            rs.getObject(5, Double.class),
+                            rs.getObject(6, Double.class),
+                            rs.getObject(7, Double.class),
+                            rs.getObject(8, Double.class),
+                            rs.getObject(9, Double.class),
+                            rs.getObject(10, Integer.class),
+                            rs.getObject(11, Boolean.class),
+                            rs.getString(12));
+                },
+                siteId,
+                Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+                Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+        try {
+            writer.write(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write archive segment " + path, e);
+        }
+        openSegments.remove(path);
+    }
+
+    // Segments of deleted sites or observations
+    private int removeOrphans(Set<Path> expected) {
+        Path root = Paths.get(archiveDir);
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        int removed = 0;
+        try (DirectoryStream<Path> sites = Files.newDirectoryStream(root, "site-*")) {
+            for (Path site : sites) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(site, "*.col")) {
+                    for (Path file : files) {
+                        if (!expected.contains(file)) {
+                            openSegments.remove(file);
+                            Files.delete(file);
+                            removed++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return removed;
+    }
+
+    private boolean isCurrent(Path path, long rows) {
+        return Files.exists(path) && segment(path).getRowCount() == rows;
+    }
+
+    private ArchiveSegment segment(Path path) {
+        return openSegments.computeIfAbsent(path, p -> {
+            try {
+                return ArchiveSegment.open(p);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open archive segment " + p, e);
+            }
+        });
+    }
+
+    // Only complete months are archived, so a segment never changes once its month is past
+    private LocalDate archiveCutoff() {
+        return LocalDate.now().minusDays(minAgeDays).withDayOfMonth(1);
+    }
+
+    private Path segmentPath(long siteId, YearMonth month) {
+        return Paths.get(archiveDir, "site-" + siteId, month + ".col");
+    }
+}
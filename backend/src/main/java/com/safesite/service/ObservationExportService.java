@@ -0,0 +1,171 @@
+package com.safesite.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full observation history of a project as CSV or NDJSON, written row by row from a
+ * forward-only JDBC cursor: no entity, DTO or list is built, so heap usage does not depend
+ * on the number of rows. Output goes through a fixed-size buffer, optionally gzip-compressed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ObservationExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final String[] COLUMNS = { "id", "siteId", "siteName", "createdAt", "temperature", "humidity",
+            "epiCompliance", "fatigue", "workingHours", "workersCount", "hazardousMaterials", "weatherConditions",
+            "notes", "riskScore", "riskLevel", "anomalousMetrics", "recommendations" };
+
+    private static final String SQL = "SELECT o.id, o.site_id, s.name, o.created_at, o.temperature, o.humidity, "
+            + "o.epi_compliance, o.fatigue, o.working_hours, o.workers_count, o.hazardous_materials, "
+            + "o.weather_conditions, o.notes, o.risk_score, o.risk_level, o.anomalous_metrics, "
+            + "o.recommendation_ids, o.recommendations "
+            + "FROM observations o JOIN sites s ON s.id = o.site_id "
+            + "WHERE s.project_id = ? ORDER BY o.created_at, o.id";
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final RecommendationCatalog recommendationCatalog;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.export.buffer-bytes:65536}")
+    private int bufferBytes;
+
+    private JdbcTemplate cursorTemplate;
+
+    @PostConstruct
+    void init() {
+        // Own template: the fetch size must not leak into the shared JdbcTemplate
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+    }
+
+    public static boolean isSupported(String format) {
+        return FORMAT_CSV.equals(format) || FORMAT_NDJSON.equals(format);
+    }
+
+    /**
+     * Writes the export to {@code out}. Runs in a read-only transaction because PostgreSQL
+     * only honours the fetch size (server-side cursor) with auto-commit off.
+     */
+    @Transactional(readOnly = true)
+    public void export(Long projectId, String format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, bufferBytes) : out;
+        OutputStream buffered = new BufferedOutputStream(target, bufferBytes);
+        try {
+            if (FORMAT_CSV.equals(format)) {
+                writeCsv(projectId, buffered);
+            } else {
+                writeNdjson(projectId, buffered);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+    }
+
+    private void writeCsv(Long projectId, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+        cursorTemplate.query(SQL, rs -> {
+            try {
+                for (int column = 1; column <= COLUMNS.length; column++) {
+                    if (column > 1) {
+                        writer.write(',');
+                    }
+                    writeCsvField(writer, column == COLUMNS.length ? String.join(" | ", recommendations(rs)) : value(rs, column));
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, projectId);
+        writer.flush();
+    }
+
+    private void writeNdjson(Long projectId, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        cursorTemplate.query(SQL, rs -> {
+            try {
+                generator.writeStartObject();
+                for (int column = 1; column < COLUMNS.length; column++) {
+                    Object value = value(rs, column);
+                    if (value instanceof String text) {
+                        generator.writeStringField(COLUMNS[column - 1], text);
+                    } else {
+                        generator.writeFieldName(COLUMNS[column - 1]);
+                        generator.writeObject(value);
+                    }
+                }
+                generator.writeFieldName(COLUMNS[COLUMNS.length - 1]);
+                generator.writeObject(recommendations(rs));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, projectId);
+        generator.close();
+    }
+
+    // Column values in export order; timestamps as ISO-8601 strings
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value;
+    }
+
+    private List<String> recommendations(ResultSet rs) throws SQLException {
+        String ids = rs.getString(COLUMNS.length);
+        if (ids != null) {
+            return recommendationCatalog.decode(ids);
+        }
+        return RecommendationCatalog.splitLegacy(rs.getString(COLUMNS.length + 1));
+    }
+
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
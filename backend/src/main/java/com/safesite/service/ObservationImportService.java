@@ -0,0 +1,576 @@
+package com.safesite.service;
+
+import com.safesite.dto.BatchJobResponse;
+import com.safesite.dto.ObservationRequest;
+import com.safesite.dto.RiskFeatures;
+import com.safesite.dto.RiskPredictionResponse;
+import com.safesite.entity.BatchJob;
+import com.safesite.entity.BatchJobChunk;
+import com.safesite.entity.BatchJobChunkId;
+import com.safesite.entity.BatchJobReject;
+import com.safesite.entity.JobStatus;
+import com.safesite.entity.JobType;
+import com.safesite.entity.Observation;
+import com.safesite.entity.Site;
+import com.safesite.entity.User;
+import com.safesite.event.ObservationScoredEvent;
+import com.safesite.repository.BatchJobChunkRepository;
+import com.safesite.repository.BatchJobRejectRepository;
+import com.safesite.repository.BatchJobRepository;
+import com.safesite.repository.ObservationRepository;
+import com.safesite.repository.SiteRepository;
+import com.safesite.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of historical observations from a CSV file, run as a {@link BatchJob}.
+ * <p>
+ * The job thread splits the file into chunks of {@code app.import.chunk-size} records and
+ * hands them to the shared job worker pool, with at most {@code app.import.max-in-flight-chunks}
+ * chunks queued or running. Each chunk parses its records, resolves their sites with one
+ * query, scores the distinct readings once and writes its observations, rejected rows,
+ * progress counters and chunk marker in one transaction (JDBC batching). A resumed job skips
+ * the chunks that already have a marker, so no row is imported twice.
+ * <p>
+ * Imported observations are published as historical {@link ObservationScoredEvent}s: they
+ * feed aggregates but raise no live alerts. They are checked against the anomaly baselines
+ * without being folded into them.
+ */
+@Service
+@Slf4j
+public class ObservationImportService {
+
+    // Recognized header names (case-insensitive); other columns, e.g. those of an export, are ignored
+    private static final String SITE_ID = "siteid";
+    private static final String SITE_NAME = "sitename";
+    private static final String SITE = "site";
+    private static final String CREATED_AT = "createdat";
+    private static final String TEMPERATURE = "temperature";
+    private static final String HUMIDITY = "humidity";
+    private static final String EPI_COMPLIANCE = "epicompliance";
+    private static final String FATIGUE = "fatigue";
+    private static final String WORKING_HOURS = "workinghours";
+    private static final String WORKERS_COUNT = "workerscount";
+    private static final String HAZARDOUS_MATERIALS = "hazardousmaterials";
+    private static final String WEATHER_CONDITIONS = "weatherconditions";
+    private static final String NOTES = "notes";
+
+    private final BatchJobRepository jobRepository;
+    private final BatchJobChunkRepository chunkRepository;
+    private final BatchJobRejectRepository rejectRepository;
+    private final SiteRepository siteRepository;
+    private final ObservationRepository observationRepository;
+    private final UserRepository userRepository;
+    private final RiskAnalysisService riskAnalysisService;
+    private final RecommendationCatalog recommendationCatalog;
+    private final AnomalyDetector anomalyDetector;
+    private final DashboardStatsService dashboardStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final ThreadPoolTaskExecutor jobWorkerExecutor;
+
+    @Value("${app.import.dir:data/imports}")
+    private String importDir;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.import.max-in-flight-chunks:8}")
+    private int maxInFlightChunks;
+
+    // Jobs running in this instance
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public ObservationImportService(BatchJobRepository jobRepository,
+            BatchJobChunkRepository chunkRepository,
+            BatchJobRejectRepository rejectRepository,
+            SiteRepository siteRepository,
+            ObservationRepository observationRepository,
+            UserRepository userRepository,
+            RiskAnalysisService riskAnalysisService,
+            RecommendationCatalog recommendationCatalog,
+            AnomalyDetector anomalyDetector,
+            DashboardStatsService dashboardStatsService,
+            ApplicationEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("jobExecutor") ThreadPoolTaskExecutor jobExecutor,
+            @Qualifier("jobWorkerExecutor") ThreadPoolTaskExecutor jobWorkerExecutor) {
+        this.jobRepository = jobRepository;
+        this.chunkRepository = chunkRepository;
+        this.rejectRepository = rejectRepository;
+        this.siteRepository = siteRepository;
+        this.observationRepository = observationRepository;
+        this.userRepository = userRepository;
+        this.riskAnalysisService = riskAnalysisService;
+        this.recommendationCatalog = recommendationCatalog;
+        this.anomalyDetector = anomalyDetector;
+        this.dashboardStatsService = dashboardStatsService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.jobExecutor = jobExecutor;
+        this.jobWorkerExecutor = jobWorkerExecutor;
+    }
+
+    /**
+     * Stores the uploaded file, counts its records and queues the import. Site names are
+     * resolved within {@code projectId} when it is given.
+     */
+    public BatchJobResponse submit(MultipartFile file, Long projectId, User user) throws IOException {
+        Path dir = Paths.get(importDir);
+        Files.createDirectories(dir);
+        Path path = dir.resolve(UUID.randomUUID() + ".csv");
+        file.transferTo(path);
+
+        long records = 0;
+        try (CsvRecordReader reader = open(path)) {
+            columnsOf(reader.next());
+            while (reader.next() != null) {
+                records++;
+            }
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+
+        BatchJob job = jobRepository.save(BatchJob.builder()
+                .type(JobType.OBSERVATION_IMPORT)
+                .status(JobStatus.QUEUED)
+                .source(path.toString())
+                .projectId(projectId)
+                .createdById(user != null ? user.getId() : null)
+                .totalItems(records)
+                .build());
+        log.info("Queued import job {} ({} records from {})", job.getId(), records, file.getOriginalFilename());
+        start(job.getId());
+        return BatchJobResponse.of(job);
+    }
+
+    /**
+     * Restarts an interrupted or failed import from its last committed chunk.
+     */
+    public BatchJobResponse resume(Long jobId) {
+        BatchJob job = getJob(jobId);
+        if (job.getStatus() == JobStatus.COMPLETED) {
+            throw new IllegalStateException("Job already completed");
+        }
+        start(jobId);
+        return BatchJobResponse.of(job);
+    }
+
+    /**
+     * Resumes the imports that were queued or running when the application stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        List<BatchJob> jobs = jobRepository.findByTypeAndStatusIn(JobType.OBSERVATION_IMPORT,
+                List.of(JobStatus.QUEUED, JobStatus.RUNNING));
+        for (BatchJob job : jobs) {
+            log.info("Resuming import job {} ({}/{} records done)", job.getId(),
+                    job.getProcessedItems(), job.getTotalItems());
+            start(job.getId());
+        }
+    }
+
+    public List<BatchJobResponse> getJobs() {
+        return jobRepository.findByTypeOrderByIdDesc(JobType.OBSERVATION_IMPORT).stream()
+                .map(BatchJobResponse::of)
+                .collect(Collectors.toList());
+    }
+
+    public BatchJobResponse getJobStatus(Long jobId) {
+        return BatchJobResponse.of(getJob(jobId));
+    }
+
+    /**
+     * Writes the rejected rows of a job as CSV: line number, reason and original record.
+     */
+    public void writeRejects(Long jobId, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write("line,reason,record\n");
+        for (BatchJobReject reject : rejectRepository.findByJobIdOrderByLineNumberAsc(jobId)) {
+            writer.write(Long.toString(reject.getLineNumber()));
+            writer.write(',');
+            writer.write(quote(reject.getReason()));
+            writer.write(',');
+            writer.write(quote(reject.getRawLine()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private BatchJob getJob(Long jobId) {
+        BatchJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found"));
+        if (job.getType() != JobType.OBSERVATION_IMPORT) {
+            throw new RuntimeException("Job not found");
+        }
+        return job;
+    }
+
+    private void start(Long jobId) {
+        if (running.add(jobId)) {
+            try {
+                jobExecutor.execute(() -> run(jobId));
+            } catch (RuntimeException e) {
+                running.remove(jobId);
+                throw e;
+            }
+        }
+    }
+
+    private void run(Long jobId) {
+        Semaphore inFlight = new Semaphore(maxInFlightChunks);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Path source = null;
+        try {
+            BatchJob job = jobRepository.findById(jobId).orElseThrow(() -> new RuntimeException("Job not found"));
+            source = Paths.get(job.getSource());
+            jobRepository.markStarted(jobId, JobStatus.RUNNING, LocalDateTime.now());
+            Set<Integer> committed = chunkRepository.findChunkIndexes(jobId);
+
+            try (CsvRecordReader reader = open(source)) {
+                Map<String, Integer> columns = columnsOf(reader.next());
+                int chunkIndex = 0;
+                List<CsvRecord> chunk = new ArrayList<>(chunkSize);
+                List<String> fields;
+                while (failure.get() == null && (fields = reader.next()) != null) {
+                    chunk.add(new CsvRecord(reader.getRecordLine(), fields, reader.getRecordText()));
+                    if (chunk.size() == chunkSize) {
+                        dispatch(job, columns, chunkIndex++, chunk, committed, inFlight, failure);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (failure.get() == null && !chunk.isEmpty()) {
+                    dispatch(job, columns, chunkIndex, chunk, committed, inFlight, failure);
+                }
+            } finally {
+                // Wait for the chunks still running
+                inFlight.acquireUninterruptibly(maxInFlightChunks);
+            }
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+        }
+
+        try {
+            Throwable error = failure.get();
+            if (error == null) {
+                jobRepository.markFinished(jobId, JobStatus.COMPLETED, LocalDateTime.now(), null);
+                log.info("Import job {} completed", jobId);
+                deleteQuietly(source);
+            } else {
+                log.error("Import job {} failed: {}", jobId, error.getMessage());
+                jobRepository.markFinished(jobId, JobStatus.FAILED, LocalDateTime.now(), truncate(error.toString(), 1000));
+            }
+            dashboardStatsService.reconcile();
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    private void dispatch(BatchJob job, Map<String, Integer> columns, int chunkIndex, List<CsvRecord> chunk,
+            Set<Integer> committed, Semaphore inFlight, AtomicReference<Throwable> failure) {
+        if (committed.contains(chunkIndex)) {
+            return;
+        }
+        inFlight.acquireUninterruptibly();
+        try {
+            jobWorkerExecutor.execute(() -> {
+                try {
+                    importChunk(job, columns, chunkIndex, chunk);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void importChunk(BatchJob job, Map<String, Integer> columns, int chunkIndex, List<CsvRecord> records) {
+        List<BatchJobReject> rejects = new ArrayList<>();
+        List<ParsedRow> rows = new ArrayList<>(records.size());
+        for (CsvRecord record : records) {
+            try {
+                rows.add(parse(columns, record));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                rejects.add(reject(job, record, e.getMessage()));
+            }
+        }
+
+        // Sites of the whole chunk in at most two queries
+        Set<Long> siteIds = new HashSet<>();
+        Set<String> siteNames = new HashSet<>();
+        for (ParsedRow row : rows) {
+            if (row.request().getSiteId() != null) {
+                siteIds.add(row.request().getSiteId());
+            } else {
+                siteNames.add(row.siteName());
+            }
+        }
+        Map<Long, Site> sitesById = new HashMap<>();
+        if (!siteIds.isEmpty()) {
+            List<Site> sites = job.getProjectId() != null
+                    ? siteRepository.findByProjectIdAndIdIn(job.getProjectId(), siteIds)
+                    : siteRepository.findAllById(siteIds);
+            sitesById = sites.stream().collect(Collectors.toMap(Site::getId, Function.identity()));
+        }
+        Map<String, List<Site>> sitesByName = new HashMap<>();
+        if (!siteNames.isEmpty()) {
+            List<Site> sites = job.getProjectId() != null
+                    ? siteRepository.findByProjectIdAndNameIn(job.getProjectId(), siteNames)
+                    : siteRepository.findByNameIn(siteNames);
+            sitesByName = sites.stream().collect(Collectors.groupingBy(Site::getName));
+        }
+
+        List<Observation> observations = new ArrayList<>(rows.size());
+        List<RiskFeatures> features = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            Site site;
+            if (row.request().getSiteId() != null) {
+                site = sitesById.get(row.request().getSiteId());
+            } else {
+                List<Site> candidates = sitesByName.getOrDefault(row.siteName(), List.of());
+                if (candidates.size() > 1) {
+                    rejects.add(reject(job, row.record(), "Ambiguous site name: " + row.siteName()));
+                    continue;
+                }
+                site = candidates.isEmpty() ? null : candidates.get(0);
+            }
+            if (site == null) {
+                rejects.add(reject(job, row.record(), "Site not found"));
+                continue;
+            }
+            ObservationRequest request = row.request();
+            observations.add(Observation.builder()
+                    .site(site)
+                    .createdAt(row.createdAt())
+                    .temperature(request.getTemperature())
+                    .humidity(request.getHumidity())
+                    .epiCompliance(request.getEpiCompliance())
+                    .fatigue(request.getFatigue())
+                    .workingHours(request.getWorkingHours())
+                    .workersCount(request.getWorkersCount())
+                    .hazardousMaterials(request.getHazardousMaterials())
+                    .weatherConditions(request.getWeatherConditions())
+                    .notes(request.getNotes())
+                    .anomalousMetrics(anomalyDetector.score(site.getId(), request))
+                    .build());
+            features.add(RiskFeatures.of(
+                    request.getTemperature(),
+                    request.getHumidity(),
+                    request.getEpiCompliance(),
+                    request.getFatigue(),
+                    request.getWorkingHours(),
+                    request.getWorkersCount(),
+                    request.getHazardousMaterials(),
+                    request.getWeatherConditions()));
+        }
+
+        // Scoring runs outside the transaction, like for single observations
+        List<RiskPredictionResponse> results = riskAnalysisService.analyzeRisks(features);
+        for (int i = 0; i < observations.size(); i++) {
+            Observation observation = observations.get(i);
+            RiskPredictionResponse result = results.get(i);
+            observation.setRiskScore(result.getRiskScore());
+            observation.setRiskLevel(result.getRiskLevel());
+            observation.setRecommendationIds(recommendationCatalog.encode(result.getRecommendations()));
+            observation.setRulesVersion(riskAnalysisService.getRulesVersion());
+        }
+
+        List<Observation> saved = transactionTemplate.execute(status -> {
+            if (job.getCreatedById() != null) {
+                User user = userRepository.getReferenceById(job.getCreatedById());
+                observations.forEach(observation -> observation.setCreatedBy(user));
+            }
+            List<Observation> persisted = observationRepository.saveAll(observations);
+            rejectRepository.saveAll(rejects);
+            chunkRepository.save(BatchJobChunk.builder()
+                    .id(new BatchJobChunkId(job.getId(), chunkIndex))
+                    .processedItems(records.size())
+                    .failedItems(rejects.size())
+                    .completedAt(LocalDateTime.now())
+                    .build());
+            jobRepository.addProgress(job.getId(), records.size(), rejects.size());
+            return persisted;
+        });
+
+        for (int i = 0; i < saved.size(); i++) {
+            eventPublisher.publishEvent(
+                    ObservationScoredEvent.of(saved.get(i), results.get(i).getRecommendations(), true));
+        }
+    }
+
+    private ParsedRow parse(Map<String, Integer> columns, CsvRecord record) {
+        ObservationRequest request = new ObservationRequest();
+        String siteId = field(columns, record, SITE_ID);
+        String siteName = null;
+        if (siteId != null) {
+            request.setSiteId(parseNumber(siteId, SITE_ID, Long::valueOf));
+        } else {
+            siteName = field(columns, record, SITE_NAME);
+            if (siteName == null) {
+                siteName = field(columns, record, SITE);
+            }
+            if (siteName == null) {
+                throw new IllegalArgumentException("Missing siteId or siteName");
+            }
+        }
+        request.setTemperature(parseNumber(field(columns, record, TEMPERATURE), TEMPERATURE, Double::valueOf));
+        request.setHumidity(parseNumber(field(columns, record, HUMIDITY), HUMIDITY, Double::valueOf));
+        // Required: the scorer would otherwise substitute a compliant default for the missing reading
+        request.setEpiCompliance(parseNumber(required(columns, record, EPI_COMPLIANCE), EPI_COMPLIANCE, Double::valueOf));
+        request.setFatigue(parseNumber(required(columns, record, FATIGUE), FATIGUE, Double::valueOf));
+        request.setWorkingHours(parseNumber(field(columns, record, WORKING_HOURS), WORKING_HOURS, Double::valueOf));
+        request.setWorkersCount(parseNumber(field(columns, record, WORKERS_COUNT), WORKERS_COUNT, Integer::valueOf));
+        request.setHazardousMaterials(parseBoolean(field(columns, record, HAZARDOUS_MATERIALS)));
+        request.setWeatherConditions(field(columns, record, WEATHER_CONDITIONS));
+        request.setNotes(field(columns, record, NOTES));
+
+        // Observations without a date are recorded at import time
+        String createdAt = field(columns, record, CREATED_AT);
+        LocalDateTime timestamp = null;
+        if (createdAt != null) {
+            timestamp = createdAt.length() == 10 ? LocalDate.parse(createdAt).atStartOfDay()
+                    : LocalDateTime.parse(createdAt.replace(' ', 'T'));
+        }
+        return new ParsedRow(record, request, siteName, timestamp);
+    }
+
+    // Header name -> column index; at least one way to identify the site is required
+    private static Map<String, Integer> columnsOf(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Empty CSV file");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.putIfAbsent(name, i);
+        }
+        if (!columns.containsKey(SITE_ID) && !columns.containsKey(SITE_NAME) && !columns.containsKey(SITE)) {
+            throw new IllegalArgumentException("CSV header must contain siteId or siteName");
+        }
+        return columns;
+    }
+
+    private static String field(Map<String, Integer> columns, CsvRecord record, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.fields().size()) {
+            return null;
+        }
+        String value = record.fields().get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String required(Map<String, Integer> columns, CsvRecord record, String name) {
+        String value = field(columns, record, name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+
+    private static <T> T parseNumber(String value, String column, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes", "oui":
+                return true;
+            case "false", "0", "no", "non":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid hazardousMaterials: " + value);
+        }
+    }
+
+    private static BatchJobReject reject(BatchJob job, CsvRecord record, String reason) {
+        return BatchJobReject.builder()
+                .jobId(job.getId())
+                .lineNumber(record.line())
+                .reason(truncate(reason != null ? reason : "Invalid record", 500))
+                .rawLine(truncate(record.text(), 4000))
+                .build();
+    }
+
+    // The file is only needed to resume the job; rejected rows are kept in the database
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete imported file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static CsvRecordReader open(Path path) throws IOException {
+        return new CsvRecordReader(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
+    private record CsvRecord(long line, List<String> fields, String text) {
+    }
+
+    private record ParsedRow(CsvRecord record, ObservationRequest request, String siteName, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.safesite.service;
+
+import com.safesite.dto.ObservationResponse;
+import com.safesite.entity.Observation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Maps {@link Observation} entities to API responses. The observation's site must already be
+ * loaded (fetch join or entity graph) to avoid one query per row.
+ */
+@Component
+@RequiredArgsConstructor
+public class ObservationMapper {
+
+    private final RecommendationCatalog recommendationCatalog;
+
+    public ObservationResponse toResponse(Observation observation) {
+        return toResponse(observation, recommendationsOf(observation));
+    }
+
+    public List<String> recommendationsOf(Observation observation) {
+        if (observation.getRecommendationIds() != null) {
+            return recommendationCatalog.decode(observation.getRecommendationIds());
+        }
+        return RecommendationCatalog.splitLegacy(observation.getRecommendations());
+    }
+
+    public ObservationResponse toResponse(Observation observation, List<String> recommendations) {
+        return ObservationResponse.builder()
+                .id(observation.getId())
+                .siteId(observation.getSite().getId())
+                .siteName(observation.getSite().getName())
+                .temperature(observation.getTemperature())
+                .humidity(observation.getHumidity())
+                .epiCompliance(observation.getEpiCompliance())
+                .fatigue(observation.getFatigue())
+                .workingHours(observation.getWorkingHours())
+                .workersCount(observation.getWorkersCount())
+                .hazardousMaterials(observation.getHazardousMaterials())
+                .weatherConditions(observation.getWeatherConditions())
+                .notes(observation.getNotes())
+                .riskScore(observation.getRiskScore())
+                .riskLevel(observation.getRiskLevel())
+                .recommendations(recommendations)
+                .rulesVersion(observation.getRulesVersion())
+                .anomaly(observation.getAnomalousMetrics() != null)
+                .anomalousMetrics(observation.getAnomalousMetrics() != null
+                        ? List.of(observation.getAnomalousMetrics().split(","))
+                        : List.of())
+                .createdAt(observation.getCreatedAt())
+                .build();
+    }
+}
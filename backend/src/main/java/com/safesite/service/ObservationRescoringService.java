@@ -0,0 +1,370 @@
+package com.safesite.service;
+
+import com.safesite.dto.BatchJobResponse;
+import com.safesite.dto.RiskFeatures;
+import com.safesite.dto.RiskPredictionResponse;
+import com.safesite.entity.BatchJob;
+import com.safesite.entity.BatchJobChunk;
+import com.safesite.entity.BatchJobChunkId;
+import com.safesite.entity.JobStatus;
+import com.safesite.entity.JobType;
+import com.safesite.entity.User;
+import com.safesite.repository.BatchJobChunkRepository;
+import com.safesite.repository.BatchJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Re-scores stored observations with the current risk engine after the rules changed
+ * ({@code app.risk.rules-version}), run as a {@link BatchJob}.
+ * <p>
+ * Observations are walked in id ranges of {@code app.rescore.chunk-size}; each range is read,
+ * scored (distinct readings once) and written back with one JDBC batch, in a transaction
+ * that also records the range's chunk marker and the job progress. Every row stores the rules
+ * version it was scored with, so ranges only touch rows of an older version and a resumed
+ * job never scores a row twice.
+ * <p>
+ * The job stays in the background: at most {@code app.rescore.parallelism} ranges are in
+ * flight on the shared job worker pool, throughput is capped at
+ * {@code app.rescore.max-rows-per-second}, and workers pause while the ML circuit is open
+ * rather than storing fallback scores. No scored events are published; rollups, dashboard
+ * counters, trends and the archive are rebuilt once the job completes.
+ */
+@Service
+@Slf4j
+public class ObservationRescoringService {
+
+    private static final String SELECT_RANGE = "SELECT id, temperature, humidity, epi_compliance, fatigue, "
+            + "working_hours, workers_count, hazardous_materials, weather_conditions "
+            + "FROM observations WHERE id >= ? AND id < ? "
+            + "AND (rules_version IS NULL OR rules_version <> ?) "
+            + "AND (risk_level IS NULL OR risk_level <> '" + ObservationService.RISK_PENDING + "')";
+
+    private static final String COUNT_OUTDATED = "SELECT COUNT(*) FROM observations "
+            + "WHERE (rules_version IS NULL OR rules_version <> ?) "
+            + "AND (risk_level IS NULL OR risk_level <> '" + ObservationService.RISK_PENDING + "')";
+
+    private static final String UPDATE_RISK = "UPDATE observations SET risk_score = ?, risk_level = ?, "
+            + "recommendation_ids = ?, recommendations = NULL, rules_version = ? WHERE id = ?";
+
+    private final BatchJobRepository jobRepository;
+    private final BatchJobChunkRepository chunkRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RiskAnalysisService riskAnalysisService;
+    private final RecommendationCatalog recommendationCatalog;
+    private final RiskRollupService riskRollupService;
+    private final DashboardStatsService dashboardStatsService;
+    private final SiteTrendService siteTrendService;
+    private final ObservationArchiveService archiveService;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final ThreadPoolTaskExecutor jobWorkerExecutor;
+
+    @Value("${app.rescore.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.rescore.parallelism:2}")
+    private int parallelism;
+
+    @Value("${app.rescore.max-rows-per-second:200}")
+    private int maxRowsPerSecond;
+
+    @Value("${app.rescore.ml-backoff-ms:5000}")
+    private long mlBackoffMs;
+
+    // Jobs running in this instance
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public ObservationRescoringService(BatchJobRepository jobRepository,
+            BatchJobChunkRepository chunkRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            RiskAnalysisService riskAnalysisService,
+            RecommendationCatalog recommendationCatalog,
+            RiskRollupService riskRollupService,
+            DashboardStatsService dashboardStatsService,
+            SiteTrendService siteTrendService,
+            ObservationArchiveService archiveService,
+            @Qualifier("jobExecutor") ThreadPoolTaskExecutor jobExecutor,
+            @Qualifier("jobWorkerExecutor") ThreadPoolTaskExecutor jobWorkerExecutor) {
+        this.jobRepository = jobRepository;
+        this.chunkRepository = chunkRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.riskAnalysisService = riskAnalysisService;
+        this.recommendationCatalog = recommendationCatalog;
+        this.riskRollupService = riskRollupService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.siteTrendService = siteTrendService;
+        this.archiveService = archiveService;
+        this.jobExecutor = jobExecutor;
+        this.jobWorkerExecutor = jobWorkerExecutor;
+    }
+
+    /**
+     * Queues a job re-scoring every observation not scored with the current rules version.
+     * Only one re-scoring job may be queued or running at a time.
+     */
+    public BatchJobResponse submit(User user) {
+        List<BatchJob> active = jobRepository.findByTypeAndStatusIn(JobType.OBSERVATION_RESCORE,
+                List.of(JobStatus.QUEUED, JobStatus.RUNNING));
+        if (!active.isEmpty()) {
+            throw new IllegalStateException("A re-scoring job is already running");
+        }
+        String rulesVersion = riskAnalysisService.getRulesVersion();
+        Long outdated = jdbcTemplate.queryForObject(COUNT_OUTDATED, Long.class, rulesVersion);
+
+        BatchJob job = jobRepository.save(BatchJob.builder()
+                .type(JobType.OBSERVATION_RESCORE)
+                .status(JobStatus.QUEUED)
+                .source(rulesVersion)
+                .createdById(user != null ? user.getId() : null)
+                .totalItems(outdated != null ? outdated : 0)
+                .build());
+        log.info("Queued re-scoring job {} ({} observations to rules version {})",
+                job.getId(), job.getTotalItems(), rulesVersion);
+        start(job.getId());
+        return BatchJobResponse.of(job);
+    }
+
+    /**
+     * Restarts an interrupted or failed job from its last committed id range.
+     */
+    public BatchJobResponse resume(Long jobId) {
+        BatchJob job = getJob(jobId);
+        if (job.getStatus() == JobStatus.COMPLETED) {
+            throw new IllegalStateException("Job already completed");
+        }
+        start(jobId);
+        return BatchJobResponse.of(job);
+    }
+
+    /**
+     * Resumes the job that was queued or running when the application stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        List<BatchJob> jobs = jobRepository.findByTypeAndStatusIn(JobType.OBSERVATION_RESCORE,
+                List.of(JobStatus.QUEUED, JobStatus.RUNNING));
+        for (BatchJob job : jobs) {
+            log.info("Resuming re-scoring job {} ({}/{} observations done)", job.getId(),
+                    job.getProcessedItems(), job.getTotalItems());
+            start(job.getId());
+        }
+    }
+
+    public List<BatchJobResponse> getJobs() {
+        return jobRepository.findByTypeOrderByIdDesc(JobType.OBSERVATION_RESCORE).stream()
+                .map(BatchJobResponse::of)
+                .collect(Collectors.toList());
+    }
+
+    public BatchJobResponse getJobStatus(Long jobId) {
+        return BatchJobResponse.of(getJob(jobId));
+    }
+
+    private BatchJob getJob(Long jobId) {
+        BatchJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found"));
+        if (job.getType() != JobType.OBSERVATION_RESCORE) {
+            throw new RuntimeException("Job not found");
+        }
+        return job;
+    }
+
+    private void start(Long jobId) {
+        if (running.add(jobId)) {
+            try {
+                jobExecutor.execute(() -> run(jobId));
+            } catch (RuntimeException e) {
+                running.remove(jobId);
+                throw e;
+            }
+        }
+    }
+
+    private void run(Long jobId) {
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong rescored = new AtomicLong();
+        try {
+            BatchJob job = jobRepository.findById(jobId).orElseThrow(() -> new RuntimeException("Job not found"));
+            String rulesVersion = riskAnalysisService.getRulesVersion();
+            if (!rulesVersion.equals(job.getSource())) {
+                // Chunk markers only hold for the version the job was started with
+                throw new IllegalStateException("Rules version changed from " + job.getSource() + " to "
+                        + rulesVersion + ", start a new re-scoring job");
+            }
+            jobRepository.markStarted(jobId, JobStatus.RUNNING, LocalDateTime.now());
+            Set<Integer> committed = chunkRepository.findChunkIndexes(jobId);
+            // Observations created from now on are already scored with the current version
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM observations", Long.class);
+            int chunks = Math.toIntExact(maxId / chunkSize + 1);
+            Throttle throttle = new Throttle(maxRowsPerSecond);
+
+            try {
+                for (int chunkIndex = 0; chunkIndex < chunks && failure.get() == null; chunkIndex++) {
+                    if (committed.contains(chunkIndex)) {
+                        continue;
+                    }
+                    int index = chunkIndex;
+                    inFlight.acquireUninterruptibly();
+                    try {
+                        jobWorkerExecutor.execute(() -> {
+                            try {
+                                rescored.addAndGet(rescoreChunk(jobId, rulesVersion, index, throttle));
+                            } catch (Throwable e) {
+                                failure.compareAndSet(null, e);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        inFlight.release();
+                        throw e;
+                    }
+                }
+            } finally {
+                // Wait for the ranges still running
+                inFlight.acquireUninterruptibly(parallelism);
+            }
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+        }
+
+        try {
+            Throwable error = failure.get();
+            if (error == null) {
+                jobRepository.markFinished(jobId, JobStatus.COMPLETED, LocalDateTime.now(), null);
+                log.info("Re-scoring job {} completed ({} observations re-scored in this run)", jobId, rescored.get());
+            } else {
+                log.error("Re-scoring job {} failed: {}", jobId, error.getMessage());
+                jobRepository.markFinished(jobId, JobStatus.FAILED, LocalDateTime.now(), truncate(error.toString(), 1000));
+            }
+            if (rescored.get() > 0) {
+                refreshDerivedData();
+            }
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    /**
+     * Re-scores the outdated observations with ids in {@code [chunkIndex * chunkSize, (chunkIndex + 1) * chunkSize)}.
+     * Returns the number of rows written.
+     */
+    private int rescoreChunk(Long jobId, String rulesVersion, int chunkIndex, Throttle throttle)
+            throws InterruptedException {
+        long fromId = (long) chunkIndex * chunkSize;
+        List<Long> ids = new ArrayList<>();
+        List<RiskFeatures> features = new ArrayList<>();
+        jdbcTemplate.query(SELECT_RANGE, rs -> {
+            ids.add(rs.getLong(1));
+            features.add(RiskFeatures.of(
+                    rs.getObject(2, Double.class),
+                    rs.getObject(3, Double.class),
+                    rs.getObject(4, Double.class),
+                    rs.getObject(5, Double.class),
+                    rs.getObject(6, Double.class),
+                    rs.getObject(7, Integer.class),
+                    rs.getObject(8, Boolean.class),
+                    rs.getString(9)));
+        }, fromId, fromId + chunkSize, rulesVersion);
+
+        List<Object[]> updates = new ArrayList<>(ids.size());
+        if (!ids.isEmpty()) {
+            throttle.acquire(ids.size());
+            while (riskAnalysisService.isMlDegraded()) {
+                log.debug("ML service degraded, re-scoring job {} backing off", jobId);
+                Thread.sleep(mlBackoffMs);
+            }
+            List<RiskPredictionResponse> results = riskAnalysisService.analyzeRisks(features);
+            for (int i = 0; i < ids.size(); i++) {
+                RiskPredictionResponse result = results.get(i);
+                updates.add(new Object[] { result.getRiskScore(), result.getRiskLevel(),
+                        recommendationCatalog.encode(result.getRecommendations()), rulesVersion, ids.get(i) });
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_RISK, updates);
+            }
+            chunkRepository.save(BatchJobChunk.builder()
+                    .id(new BatchJobChunkId(jobId, chunkIndex))
+                    .processedItems(updates.size())
+                    .failedItems(0)
+                    .completedAt(LocalDateTime.now())
+                    .build());
+            if (!updates.isEmpty()) {
+                jobRepository.addProgress(jobId, updates.size(), 0);
+            }
+        });
+        return updates.size();
+    }
+
+    // Aggregates derived from the stored risk results
+    private void refreshDerivedData() {
+        try {
+            riskRollupService.rebuild();
+            dashboardStatsService.reconcile();
+            siteTrendService.reload();
+            if (archiveService.isEnabled()) {
+                archiveService.rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh aggregates after re-scoring: {}", e.getMessage());
+        }
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
+    /**
+     * Spaces out ranges so the job averages at most {@code rowsPerSecond} rows; 0 disables it.
+     */
+    private static final class Throttle {
+        private final long nanosPerRow;
+        private long next;
+
+        Throttle(int rowsPerSecond) {
+            this.nanosPerRow = rowsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / rowsPerSecond : 0;
+            this.next = System.nanoTime();
+        }
+
+        void acquire(int rows) throws InterruptedException {
+            if (nanosPerRow == 0) {
+                return;
+            }
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long start = Math.max(next, now);
+                next = start + rows * nanosPerRow;
+                wait = start - now;
+            }
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+    }
+}
@@ -4,31 +4,223 @@ import com.safesite.dto.*;
 import com.safesite.entity.Observation;
 import com.safesite.entity.Site;
 import com.safesite.entity.User;
+import com.safesite.event.ObservationScoredEvent;
 import com.safesite.repository.ObservationRepository;
 import com.safesite.repository.SiteRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ObservationService {
 
+    public static final String RISK_PENDING = "PENDING";
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final ObservationRepository observationRepository;
     private final SiteRepository siteRepository;
     private final RiskAnalysisService riskAnalysisService;
+    private final AsyncTaskExecutor scoringExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final RecommendationCatalog recommendationCatalog;
+    private final ObservationMapper observationMapper;
+    private final AnomalyDetector anomalyDetector;
 
-    @Transactional
+    /**
+     * Scores the observation and then persists it. Scoring runs outside any transaction
+     * so a slow ML service never holds a database connection.
+     */
     public ObservationResponse createObservation(ObservationRequest request, User user) {
         Site site = siteRepository.findById(request.getSiteId())
                 .orElseThrow(() -> new RuntimeException("Site not found"));
 
         // Call ML service for risk analysis
-        RiskPredictionResponse riskResult = riskAnalysisService.analyzeRisk(
+        RiskPredictionResponse riskResult = riskAnalysisService.analyzeRisk(featuresOf(request));
+
+        Observation observation = buildObservation(request, site, user)
+                .riskScore(riskResult.getRiskScore())
+                .riskLevel(riskResult.getRiskLevel())
+                .recommendationIds(recommendationCatalog.encode(riskResult.getRecommendations()))
+                .rulesVersion(riskAnalysisService.getRulesVersion())
+                .build();
+
+        observation = observationRepository.save(observation);
+        anomalyDetector.record(observation);
+        eventPublisher.publishEvent(ObservationScoredEvent.of(observation, riskResult.getRecommendations()));
+
+        return observationMapper.toResponse(observation, riskResult.getRecommendations());
+    }
+
+    /**
+     * Persists the observation immediately in the {@link #RISK_PENDING} state and scores it
+     * on the scoring pool. Clients fetch the observation later to read the result.
+     */
+    public ObservationResponse submitObservation(ObservationRequest request, User user) {
+        Site site = siteRepository.findById(request.getSiteId())
+                .orElseThrow(() -> new RuntimeException("Site not found"));
+
+        Observation observation = buildObservation(request, site, user)
+                .riskLevel(RISK_PENDING)
+                .build();
+
+        observation = observationRepository.save(observation);
+        anomalyDetector.record(observation);
+        ObservationResponse response = observationMapper.toResponse(observation, List.of());
+        scheduleScoring(observation);
+
+        return response;
+    }
+
+    /**
+     * Creates many observations at once (offline sync). Sites are resolved in one query, the
+     * valid rows are scored together (identical readings once, see
+     * {@link RiskAnalysisService#analyzeRisks}) outside any transaction, then written by one
+     * {@code saveAll} call, in its own transaction with JDBC batching. Invalid rows are
+     * reported per item instead of failing the whole batch.
+     */
+    public ObservationBatchResponse createObservations(List<ObservationRequest> requests, User user) {
+        Set<Long> siteIds = requests.stream()
+                .map(ObservationRequest::getSiteId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        Map<Long, Site> sites = siteRepository.findAllById(siteIds).stream()
+                .collect(Collectors.toMap(Site::getId, Function.identity()));
+
+        ObservationBatchItem[] items = new ObservationBatchItem[requests.size()];
+        List<Site> validSites = new ArrayList<>();
+        List<RiskFeatures> features = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ObservationRequest request = requests.get(i);
+            Site site = request.getSiteId() != null ? sites.get(request.getSiteId()) : null;
+            if (site == null) {
+                items[i] = ObservationBatchItem.builder()
+                        .index(i)
+                        .success(false)
+                        .error(request.getSiteId() == null ? "Missing siteId" : "Site not found")
+                        .build();
+                continue;
+            }
+
+            validSites.add(site);
+            features.add(featuresOf(request));
+            savedIndexes.add(i);
+        }
+
+        List<RiskPredictionResponse> riskResults = riskAnalysisService.analyzeRisks(features);
+        List<Observation> toSave = new ArrayList<>(riskResults.size());
+        for (int j = 0; j < riskResults.size(); j++) {
+            RiskPredictionResponse riskResult = riskResults.get(j);
+            toSave.add(buildObservation(requests.get(savedIndexes.get(j)), validSites.get(j), user)
+                    .riskScore(riskResult.getRiskScore())
+                    .riskLevel(riskResult.getRiskLevel())
+                    .recommendationIds(recommendationCatalog.encode(riskResult.getRecommendations()))
+                    .rulesVersion(riskAnalysisService.getRulesVersion())
+                    .build());
+        }
+
+        List<Observation> saved = observationRepository.saveAll(toSave);
+        for (int j = 0; j < saved.size(); j++) {
+            Observation observation = saved.get(j);
+            int index = savedIndexes.get(j);
+            anomalyDetector.record(observation);
+            eventPublisher.publishEvent(
+                    ObservationScoredEvent.of(observation, observationMapper.recommendationsOf(observation)));
+            items[index] = ObservationBatchItem.builder()
+                    .index(index)
+                    .success(true)
+                    .id(observation.getId())
+                    .riskScore(observation.getRiskScore())
+                    .riskLevel(observation.getRiskLevel())
+                    .build();
+        }
+
+        return ObservationBatchResponse.builder()
+                .received(requests.size())
+                .created(saved.size())
+                .failed(requests.size() - saved.size())
+                .items(Arrays.asList(items))
+                .build();
+    }
+
+    /**
+     * Re-queues observations left pending by a previous run (e.g. after a crash or restart).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingScoring() {
+        List<Observation> pending = observationRepository.findByRiskLevel(RISK_PENDING);
+        if (!pending.isEmpty()) {
+            log.info("Resuming scoring of {} pending observations", pending.size());
+        }
+        pending.forEach(this::scheduleScoring);
+    }
+
+    /**
+     * Scores a persisted PENDING observation on the scoring pool. The observation is detached
+     * and owned by the worker from here on.
+     */
+    private void scheduleScoring(Observation observation) {
+        scoringExecutor.execute(() -> {
+            try {
+                RiskPredictionResponse riskResult = riskAnalysisService.analyzeRisk(featuresOf(observation));
+                String recommendationIds = recommendationCatalog.encode(riskResult.getRecommendations());
+                observationRepository.updateRisk(observation.getId(),
+                        riskResult.getRiskScore(),
+                        riskResult.getRiskLevel(),
+                        recommendationIds,
+                        riskAnalysisService.getRulesVersion());
+
+                observation.setRiskScore(riskResult.getRiskScore());
+                observation.setRiskLevel(riskResult.getRiskLevel());
+                observation.setRecommendationIds(recommendationIds);
+                observation.setRulesVersion(riskAnalysisService.getRulesVersion());
+                eventPublisher.publishEvent(ObservationScoredEvent.of(observation, riskResult.getRecommendations()));
+            } catch (Exception e) {
+                log.error("Failed to score observation {}: {}", observation.getId(), e.getMessage());
+            }
+        });
+    }
+
+    private RiskFeatures featuresOf(Observation observation) {
+        return RiskFeatures.of(
+                observation.getTemperature(),
+                observation.getHumidity(),
+                observation.getEpiCompliance(),
+                observation.getFatigue(),
+                observation.getWorkingHours(),
+                observation.getWorkersCount(),
+                observation.getHazardousMaterials(),
+                observation.getWeatherConditions());
+    }
+
+    private RiskFeatures featuresOf(ObservationRequest request) {
+        return RiskFeatures.of(
                 request.getTemperature(),
                 request.getHumidity(),
                 request.getEpiCompliance(),
@@ -37,8 +229,10 @@ public class ObservationService {
                 request.getWorkersCount(),
                 request.getHazardousMaterials(),
                 request.getWeatherConditions());
+    }
 
-        Observation observation = Observation.builder()
+    private Observation.ObservationBuilder buildObservation(ObservationRequest request, Site site, User user) {
+        return Observation.builder()
                 .site(site)
                 .createdBy(user)
                 .temperature(request.getTemperature())
@@ -50,59 +244,81 @@ public class ObservationService {
                 .hazardousMaterials(request.getHazardousMaterials())
                 .weatherConditions(request.getWeatherConditions())
                 .notes(request.getNotes())
-                .riskScore(riskResult.getRiskScore())
-                .riskLevel(riskResult.getRiskLevel())
-                .recommendations(String.join("|||", riskResult.getRecommendations()))
-                .build();
-
-        observation = observationRepository.save(observation);
-
-        return mapToResponse(observation, riskResult.getRecommendations());
+                .anomalousMetrics(anomalyDetector.score(site.getId(), request));
     }
 
     public List<ObservationResponse> getAllObservations() {
-        return observationRepository.findAll().stream()
-                .map(this::mapToResponse)
+        return observationRepository.findAllWithSite().stream()
+                .map(observationMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     public List<ObservationResponse> getObservationsBySite(Long siteId) {
         return observationRepository.findBySiteId(siteId).stream()
-                .map(this::mapToResponse)
+                .map(observationMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
-    public ObservationResponse getObservationById(Long id) {
-        Observation observation = observationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Observation not found"));
-        return mapToResponse(observation);
+    /**
+     * Keyset-paginated listing, newest first. The cursor encodes the {@code (createdAt, id)}
+     * of the last returned observation, so each page costs one index range scan.
+     */
+    public CursorPage<ObservationResponse> getObservationPage(ObservationFilter filter, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterCreatedAt = LocalDateTime.parse(position[0]);
+            afterId = Long.valueOf(position[1]);
+        }
+
+        List<Observation> rows = observationRepository.findPage(filter, afterCreatedAt, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Observation last = rows.get(rows.size() - 1);
+            nextCursor = CursorPage.encodeCursor(last.getCreatedAt() + "|" + last.getId());
+        }
+        return CursorPage.<ObservationResponse>builder()
+                .items(rows.stream().map(observationMapper::toResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
     }
 
-    private ObservationResponse mapToResponse(Observation observation) {
-        List<String> recommendations = observation.getRecommendations() != null
-                ? Arrays.asList(observation.getRecommendations().split("\\|\\|\\|"))
-                : List.of();
-        return mapToResponse(observation, recommendations);
+    /**
+     * Writes the matching observations as a JSON array, row by row from a database cursor,
+     * so memory use does not depend on the number of rows.
+     */
+    @Transactional(readOnly = true)
+    public void streamObservations(ObservationFilter filter, OutputStream out) throws IOException {
+        try (Stream<Observation> rows = observationRepository.streamAll(filter);
+                JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            Iterator<Observation> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(observationMapper.toResponse(iterator.next()));
+            }
+            generator.writeEndArray();
+        }
     }
 
-    private ObservationResponse mapToResponse(Observation observation, List<String> recommendations) {
-        return ObservationResponse.builder()
-                .id(observation.getId())
-                .siteId(observation.getSite().getId())
-                .siteName(observation.getSite().getName())
-                .temperature(observation.getTemperature())
-                .humidity(observation.getHumidity())
-                .epiCompliance(observation.getEpiCompliance())
-                .fatigue(observation.getFatigue())
-                .workingHours(observation.getWorkingHours())
-                .workersCount(observation.getWorkersCount())
-                .hazardousMaterials(observation.getHazardousMaterials())
-                .weatherConditions(observation.getWeatherConditions())
-                .notes(observation.getNotes())
-                .riskScore(observation.getRiskScore())
-                .riskLevel(observation.getRiskLevel())
-                .recommendations(recommendations)
-                .createdAt(observation.getCreatedAt())
-                .build();
+    private static String[] decodeCursor(String cursor) {
+        String[] position = CursorPage.decodeCursor(cursor).split("\\|");
+        if (position.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return position;
+    }
+
+    public ObservationResponse getObservationById(Long id) {
+        Observation observation = observationRepository.findWithSiteById(id)
+                .orElseThrow(() -> new RuntimeException("Observation not found"));
+        return observationMapper.toResponse(observation);
     }
 }
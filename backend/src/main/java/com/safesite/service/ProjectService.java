@@ -1,40 +1,63 @@
 package com.safesite.service;
 
+import com.safesite.dto.ChefAssignmentRequest;
 import com.safesite.dto.ProjectResponse;
 import com.safesite.dto.SiteResponse;
 import com.safesite.entity.Project;
 import com.safesite.entity.Role;
 import com.safesite.entity.Site;
-import com.safesite.entity.User;
+import com.safesite.repository.ChefAssignment;
 import com.safesite.repository.ProjectRepository;
 import com.safesite.repository.SiteRepository;
 import com.safesite.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProjectService {
 
+        public static final String ASSIGN = "assign";
+        public static final String UNASSIGN = "unassign";
+
+        // Insert-if-absent keeps assigning idempotent without relying on a vendor-specific upsert
+        private static final String INSERT_ASSIGNMENT = "INSERT INTO user_projects (user_id, project_id) "
+                        + "SELECT ?, ? WHERE NOT EXISTS "
+                        + "(SELECT 1 FROM user_projects WHERE user_id = ? AND project_id = ?)";
+        private static final String DELETE_ASSIGNMENT = "DELETE FROM user_projects WHERE user_id = ? AND project_id = ?";
+
         private final ProjectRepository projectRepository;
         private final SiteRepository siteRepository;
         private final UserRepository userRepository;
+        private final DashboardStatsService dashboardStatsService;
+        private final SiteAccessIndex siteAccessIndex;
+        private final JdbcTemplate jdbcTemplate;
+
+        @Value("${app.assignments.max-pairs:10000}")
+        private int maxAssignmentPairs;
 
         public List<ProjectResponse> getAllProjects() {
-                return projectRepository.findAll().stream()
+                return projectRepository.findAllWithSites().stream()
                                 .map(this::mapToResponse)
                                 .collect(Collectors.toList());
         }
 
         public ProjectResponse getProjectById(Long id) {
-                Project project = projectRepository.findById(id)
+                Project project = projectRepository.findWithSitesById(id)
                                 .orElseThrow(() -> new RuntimeException("Project not found"));
                 return mapToResponse(project);
         }
@@ -45,6 +68,7 @@ public class ProjectService {
                                 .location(location)
                                 .build();
                 project = projectRepository.save(project);
+                dashboardStatsService.onProjectCreated();
                 return mapToResponse(project);
         }
 
@@ -64,6 +88,8 @@ public class ProjectService {
                                 .project(project)
                                 .build();
                 site = siteRepository.save(site);
+                dashboardStatsService.onSiteCreated();
+                siteAccessIndex.onSiteCreated(site.getId(), projectId);
                 return mapSiteToResponse(site);
         }
 
@@ -71,20 +97,23 @@ public class ProjectService {
                 Project project = projectRepository.findById(id)
                                 .orElseThrow(() -> new RuntimeException("Project not found"));
                 projectRepository.delete(project);
+                // Cascades to sites and observations: recount rather than track each row
+                dashboardStatsService.reconcile();
+                siteAccessIndex.onProjectDeleted(id);
         }
 
         public List<Map<String, Object>> getChefsByProject(Long projectId) {
-                List<User> allChefs = userRepository.findByRole(Role.CHEF);
-                Project project = projectRepository.findById(projectId)
-                                .orElseThrow(() -> new RuntimeException("Project not found"));
+                if (!projectRepository.existsById(projectId)) {
+                        throw new RuntimeException("Project not found");
+                }
 
                 List<Map<String, Object>> result = new ArrayList<>();
-                for (User chef : allChefs) {
+                for (ChefAssignment chef : userRepository.findAssignmentsByRole(Role.CHEF, projectId)) {
                         Map<String, Object> chefMap = new HashMap<>();
                         chefMap.put("id", chef.getId());
                         chefMap.put("fullName", chef.getFullName());
                         chefMap.put("email", chef.getEmail());
-                        chefMap.put("assigned", chef.getAssignedProjects().contains(project));
+                        chefMap.put("assigned", chef.isAssigned());
                         result.add(chefMap);
                 }
                 return result;
@@ -92,24 +121,68 @@ public class ProjectService {
 
         @Transactional
         public void assignChefToProject(Long projectId, Long chefId) {
-                Project project = projectRepository.findById(projectId)
-                                .orElseThrow(() -> new RuntimeException("Project not found"));
-                User chef = userRepository.findById(chefId)
-                                .orElseThrow(() -> new RuntimeException("Chef not found"));
-
-                chef.getAssignedProjects().add(project);
-                userRepository.save(chef);
+                checkExists(List.of(projectId), List.of(chefId));
+                jdbcTemplate.update(INSERT_ASSIGNMENT, chefId, projectId, chefId, projectId);
+                siteAccessIndex.onChefAssigned(chefId, projectId);
         }
 
         @Transactional
         public void removeChefFromProject(Long projectId, Long chefId) {
-                Project project = projectRepository.findById(projectId)
-                                .orElseThrow(() -> new RuntimeException("Project not found"));
-                User chef = userRepository.findById(chefId)
-                                .orElseThrow(() -> new RuntimeException("Chef not found"));
+                checkExists(List.of(projectId), List.of(chefId));
+                jdbcTemplate.update(DELETE_ASSIGNMENT, chefId, projectId);
+                siteAccessIndex.onChefRemoved(chefId, projectId);
+        }
+
+        /**
+         * Assigns or unassigns every chef of the request to every project of the request, as
+         * one JDBC batch against {@code user_projects}. Existing assignments are left as is.
+         * Returns the number of assignments actually created or removed.
+         */
+        @Transactional
+        public Map<String, Object> updateAssignments(ChefAssignmentRequest request) {
+                boolean assign;
+                if (ASSIGN.equalsIgnoreCase(request.getAction())) {
+                        assign = true;
+                } else if (UNASSIGN.equalsIgnoreCase(request.getAction())) {
+                        assign = false;
+                } else {
+                        throw new IllegalArgumentException("Unsupported action: " + request.getAction());
+                }
+                Set<Long> chefIds = new LinkedHashSet<>(request.getChefIds() != null ? request.getChefIds() : List.of());
+                Set<Long> projectIds = new LinkedHashSet<>(request.getProjectIds() != null ? request.getProjectIds() : List.of());
+                if (chefIds.isEmpty() || projectIds.isEmpty()) {
+                        throw new IllegalArgumentException("chefIds and projectIds are required");
+                }
+                if (chefIds.size() * (long) projectIds.size() > maxAssignmentPairs) {
+                        throw new IllegalArgumentException("Too many assignments");
+                }
+                checkExists(projectIds, chefIds);
+
+                List<Object[]> pairs = new ArrayList<>(chefIds.size() * projectIds.size());
+                for (Long chefId : chefIds) {
+                        for (Long projectId : projectIds) {
+                                pairs.add(assign ? new Object[] { chefId, projectId, chefId, projectId }
+                                                : new Object[] { chefId, projectId });
+                        }
+                }
+                int[] counts = jdbcTemplate.batchUpdate(assign ? INSERT_ASSIGNMENT : DELETE_ASSIGNMENT, pairs);
+                siteAccessIndex.onAssignmentsChanged(chefIds, projectIds, assign);
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("action", assign ? ASSIGN : UNASSIGN);
+                result.put("pairs", pairs.size());
+                result.put("changed", Arrays.stream(counts).filter(count -> count > 0).sum());
+                return result;
+        }
 
-                chef.getAssignedProjects().remove(project);
-                userRepository.save(chef);
+        // Existence checks with two count queries instead of loading the entities
+        private void checkExists(Collection<Long> projectIds, Collection<Long> chefIds) {
+                if (projectRepository.countByIdIn(projectIds) != projectIds.size()) {
+                        throw new RuntimeException("Project not found");
+                }
+                if (userRepository.countByIdIn(chefIds) != chefIds.size()) {
+                        throw new RuntimeException("Chef not found");
+                }
         }
 
         private ProjectResponse mapToResponse(Project project) {
@@ -0,0 +1,203 @@
+package com.safesite.service;
+
+import com.safesite.entity.Recommendation;
+import com.safesite.repository.RecommendationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Interned, in-memory view of the {@code recommendations} table.
+ * <p>
+ * The catalog holds templates: the decimal values a text quotes (e.g. {@code (80.0%)}) are
+ * replaced by {@code {}} slots, so the table stays as small as the rule set. Observations store
+ * their recommendations as comma-separated template ids, each followed by its values
+ * ({@code 3:80.0,5:7.5,7}, see {@link #encode(List)}); reads rebuild the texts from the
+ * in-memory templates ({@link #decode(String)}) without touching the database. A new template
+ * is inserted on first use, which only happens when the rules change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationCatalog {
+
+    private final RecommendationRepository recommendationRepository;
+
+    // Decimal values as Python and RuleBasedRiskScorer.formatFloat print them
+    private static final Pattern VALUE = Pattern.compile("-?\\d+\\.\\d+(?:[eE][-+]?\\d+)?");
+    private static final String SLOT = "{}";
+
+    private final Map<String, Integer> idsByText = new ConcurrentHashMap<>();
+    // Indexed by id; only copied when it has to grow
+    private volatile AtomicReferenceArray<String> textsById = new AtomicReferenceArray<>(64);
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @PostConstruct
+    void load() {
+        recommendationRepository.findAll().forEach(this::register);
+        log.info("Loaded {} catalog recommendations", idsByText.size());
+    }
+
+    public String encode(List<String> recommendations) {
+        StringBuilder ids = new StringBuilder(recommendations.size() * 8);
+        for (String text : recommendations) {
+            if (ids.length() > 0) {
+                ids.append(',');
+            }
+            Matcher values = VALUE.matcher(text);
+            if (text.contains(SLOT) || !values.find()) {
+                ids.append(idOf(text));
+                continue;
+            }
+            StringBuilder template = new StringBuilder(text.length());
+            StringBuilder params = new StringBuilder(16);
+            int last = 0;
+            do {
+                template.append(text, last, values.start()).append(SLOT);
+                params.append(':').append(text, values.start(), values.end());
+                last = values.end();
+            } while (values.find());
+            template.append(text, last, text.length());
+            ids.append(idOf(template.toString())).append(params);
+        }
+        return ids.toString();
+    }
+
+    public List<String> decode(String ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<String> texts = new ArrayList<>(4);
+        int start = 0;
+        while (start <= ids.length()) {
+            int end = ids.indexOf(',', start);
+            if (end < 0) {
+                end = ids.length();
+            }
+            texts.add(decodeOne(ids, start, end));
+            start = end + 1;
+        }
+        return texts;
+    }
+
+    /**
+     * Splits a legacy {@code "|||"}-joined recommendations column.
+     */
+    public static List<String> splitLegacy(String joined) {
+        return joined != null ? Arrays.asList(joined.split("\\|\\|\\|")) : List.of();
+    }
+
+    private int idOf(String text) {
+        Integer id = idsByText.get(text);
+        if (id != null) {
+            return id;
+        }
+        writeLock.lock();
+        try {
+            id = idsByText.get(text);
+            if (id == null) {
+                id = register(findOrCreate(text));
+            }
+            return id;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Decodes {@code id[:value]*} between {@code start} and {@code end}; texts without values
+     * are the shared template instances.
+     */
+    private String decodeOne(String ids, int start, int end) {
+        int colon = ids.indexOf(':', start);
+        if (colon < 0 || colon > end) {
+            colon = end;
+        }
+        String template = textOf(Integer.parseInt(ids, start, colon, 10));
+        if (colon == end) {
+            return template;
+        }
+        StringBuilder text = new StringBuilder(template.length() + 16);
+        int last = 0;
+        int param = colon + 1;
+        while (param <= end) {
+            int slot = template.indexOf(SLOT, last);
+            if (slot < 0) {
+                break;
+            }
+            int paramEnd = ids.indexOf(':', param);
+            if (paramEnd < 0 || paramEnd > end) {
+                paramEnd = end;
+            }
+            text.append(template, last, slot).append(ids, param, paramEnd);
+            last = slot + SLOT.length();
+            param = paramEnd + 1;
+        }
+        return text.append(template, last, template.length()).toString();
+    }
+
+    private String textOf(int id) {
+        AtomicReferenceArray<String> texts = textsById;
+        String text = id < texts.length() ? texts.get(id) : null;
+        if (text != null) {
+            return text;
+        }
+        // Inserted by another instance since startup
+        return recommendationRepository.findById(id)
+                .map(recommendation -> textsById.get(register(recommendation)))
+                .orElse("");
+    }
+
+    /**
+     * Catalog template of a recommendation text: its decimal values replaced by slots.
+     */
+    static String templateOf(String text) {
+        return text.contains(SLOT) ? text : VALUE.matcher(text).replaceAll(SLOT);
+    }
+
+    private Recommendation findOrCreate(String text) {
+        return recommendationRepository.findByText(text).orElseGet(() -> {
+            try {
+                return recommendationRepository.save(Recommendation.builder().text(text).build());
+            } catch (DataIntegrityViolationException e) {
+                // Another instance inserted the same text concurrently
+                return recommendationRepository.findByText(text).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    private int register(Recommendation recommendation) {
+        writeLock.lock();
+        try {
+            int id = recommendation.getId();
+            AtomicReferenceArray<String> texts = textsById;
+            String text = recommendation.getText();
+            if (id < texts.length()) {
+                texts.set(id, text);
+            } else {
+                AtomicReferenceArray<String> grown = new AtomicReferenceArray<>(Math.max(id + 1, texts.length() * 2));
+                for (int i = 0; i < texts.length(); i++) {
+                    grown.set(i, texts.get(i));
+                }
+                grown.set(id, text);
+                textsById = grown;
+            }
+            idsByText.put(text, id);
+            return id;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -1,86 +1,241 @@
 package com.safesite.service;
 
+import com.safesite.dto.RiskFeatures;
 import com.safesite.dto.RiskPredictionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entry point for risk scoring. The scorer is selected per deployment with
+ * {@code app.risk.scorer}: {@code local} scores in-process with {@link RuleBasedRiskScorer},
+ * {@code ml} calls the ML service and falls back to the local rules when it fails.
+ * <p>
+ * ML calls go through a circuit breaker and a bulkhead (a cap on concurrent outbound calls);
+ * when either rejects the call, the local rules answer immediately.
+ * <p>
+ * Predictions are memoized in {@link RiskPredictionCache}; fallback results are not cached.
+ * <p>
+ * Metrics: {@code safesite.ml.call} (timer, outcome=success|timeout|error) and
+ * {@code safesite.ml.fallback} (counter, reason=circuit_open|bulkhead_full|error).
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RiskAnalysisService {
 
-    private final RestTemplate restTemplate;
+    private final MlServiceRiskScorer mlServiceRiskScorer;
+    private final RuleBasedRiskScorer ruleBasedRiskScorer;
+    private final MlCircuitBreaker circuitBreaker;
+    private final RiskPredictionCache predictionCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.risk.scorer:ml}")
+    private String scorer;
+
+    @Value("${app.risk.rules-version:1}")
+    private String rulesVersion;
+
+    @Value("${app.ml-service.bulkhead.max-concurrent-calls:20}")
+    private int maxConcurrentCalls;
+
+    @Value("${app.ml-service.bulkhead.max-wait-ms:50}")
+    private long maxWaitMs;
+
+    private Semaphore bulkhead;
+    private final AtomicLong bulkheadRejections = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    private Timer mlCallSuccess;
+    private Timer mlCallTimeout;
+    private Timer mlCallError;
+    private Counter fallbackCircuitOpen;
+    private Counter fallbackBulkheadFull;
+    private Counter fallbackError;
+
+    @PostConstruct
+    void init() {
+        bulkhead = new Semaphore(maxConcurrentCalls);
+
+        mlCallSuccess = mlCallTimer("success");
+        mlCallTimeout = mlCallTimer("timeout");
+        mlCallError = mlCallTimer("error");
+        fallbackCircuitOpen = fallbackCounter("circuit_open");
+        fallbackBulkheadFull = fallbackCounter("bulkhead_full");
+        fallbackError = fallbackCounter("error");
+
+        Gauge.builder("safesite.ml.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free ML call permits in the bulkhead")
+                .register(meterRegistry);
+        Gauge.builder("safesite.ml.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("ML circuit breaker state (0=closed, 1=open, 2=half-open)")
+                .register(meterRegistry);
+    }
+
+    private Timer mlCallTimer(String outcome) {
+        return Timer.builder("safesite.ml.call")
+                .description("Calls to the ML service /predict endpoint")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
-    @Value("${app.ml-service.url}")
-    private String mlServiceUrl;
+    private Counter fallbackCounter(String reason) {
+        return Counter.builder("safesite.ml.fallback")
+                .description("Predictions served by the local rules instead of the ML service")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
 
     public RiskPredictionResponse analyzeRisk(Double temperature, Double humidity,
             Double epiCompliance, Double fatigue,
             Double workingHours, Integer workersCount,
             Boolean hazardousMaterials, String weatherConditions) {
-        try {
-            String url = mlServiceUrl + "/predict";
+        return analyzeRisk(RiskFeatures.of(temperature, humidity, epiCompliance, fatigue,
+                workingHours, workersCount, hazardousMaterials, weatherConditions));
+    }
 
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("temperature", temperature != null ? temperature : 25.0);
-            requestBody.put("humidity", humidity != null ? humidity : 50.0);
-            requestBody.put("epi_compliance", epiCompliance != null ? epiCompliance : 100.0);
-            requestBody.put("fatigue", fatigue != null ? fatigue : 3.0);
-            requestBody.put("working_hours", workingHours != null ? workingHours : 8.0);
-            requestBody.put("workers_count", workersCount != null ? workersCount : 10);
-            requestBody.put("hazardous_materials", hazardousMaterials != null ? hazardousMaterials : false);
-            requestBody.put("weather_conditions", weatherConditions != null ? weatherConditions : "normal");
+    public RiskPredictionResponse analyzeRisk(RiskFeatures features) {
+        RiskPredictionCache.Key key = predictionCache.key(features, rulesVersion);
+        RiskPredictionResponse cached = predictionCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+        if ("local".equalsIgnoreCase(scorer)) {
+            RiskPredictionResponse response = ruleBasedRiskScorer.score(features);
+            predictionCache.put(key, response);
+            return response;
+        }
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+        RiskPredictionResponse response = callMlService(features);
+        if (response == null) {
+            return fallback(features);
+        }
+        predictionCache.put(key, response);
+        return response;
+    }
 
-            log.info("Sending risk analysis request to ML service: {}", requestBody);
+    /**
+     * Scores a batch of observations. Identical readings are scored once, so a batch costs
+     * at most one scorer call per distinct reading.
+     */
+    public List<RiskPredictionResponse> analyzeRisks(List<RiskFeatures> batch) {
+        Map<RiskFeatures, RiskPredictionResponse> distinct = new HashMap<>();
+        List<RiskPredictionResponse> results = new ArrayList<>(batch.size());
+        for (RiskFeatures features : batch) {
+            results.add(distinct.computeIfAbsent(features, this::analyzeRisk));
+        }
+        return results;
+    }
 
-            ResponseEntity<RiskPredictionResponse> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    RiskPredictionResponse.class);
+    public String getRulesVersion() {
+        return rulesVersion;
+    }
 
-            log.info("Received risk analysis response: {}", response.getBody());
+    /**
+     * Whether ML predictions are currently replaced by the local rules because the circuit
+     * is not closed. Background work backs off instead of scoring with the fallback.
+     */
+    public boolean isMlDegraded() {
+        return !"local".equalsIgnoreCase(scorer) && circuitBreaker.getState() != MlCircuitBreaker.State.CLOSED;
+    }
 
-            return response.getBody();
+    public void invalidateCache(String reason) {
+        predictionCache.invalidateAll(reason);
+    }
+
+    /**
+     * Snapshot of the ML client state for monitoring.
+     */
+    public Map<String, Object> getMlServiceStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("scorer", scorer);
+        status.put("circuitState", circuitBreaker.getState().name());
+        status.put("consecutiveFailures", circuitBreaker.getConsecutiveFailures());
+        status.put("circuitRejections", circuitBreaker.getRejectedCalls());
+        status.put("bulkheadAvailable", bulkhead.availablePermits());
+        status.put("bulkheadMax", maxConcurrentCalls);
+        status.put("bulkheadRejections", bulkheadRejections.get());
+        status.put("fallbacks", fallbacks.get());
+        status.put("rulesVersion", rulesVersion);
+        status.put("cache", predictionCache.getStats());
+        return status;
+    }
+
+    /**
+     * Calls the ML service through the circuit breaker and bulkhead.
+     * Returns {@code null} when the call was rejected or failed.
+     */
+    private RiskPredictionResponse callMlService(RiskFeatures features) {
+        if (!circuitBreaker.allowRequest()) {
+            fallbackCircuitOpen.increment();
+            return null;
+        }
+
+        if (!acquireBulkhead()) {
+            bulkheadRejections.incrementAndGet();
+            fallbackBulkheadFull.increment();
+            // The call never reached the ML service: release the half-open probe, if any
+            circuitBreaker.releaseProbe();
+            log.warn("ML service bulkhead full ({} concurrent calls), scoring locally", maxConcurrentCalls);
+            return null;
+        }
 
+        long start = System.nanoTime();
+        try {
+            RiskPredictionResponse response = mlServiceRiskScorer.score(features);
+            mlCallSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            circuitBreaker.recordSuccess();
+            return response;
         } catch (Exception e) {
+            (isTimeout(e) ? mlCallTimeout : mlCallError).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            fallbackError.increment();
+            circuitBreaker.recordFailure();
             log.error("Error calling ML service: {}", e.getMessage());
-
-            // Fallback: Calculate risk locally if ML service is unavailable
-            return calculateRiskLocally(epiCompliance, fatigue);
+            return null;
+        } finally {
+            bulkhead.release();
         }
     }
 
-    private RiskPredictionResponse calculateRiskLocally(Double epiCompliance, Double fatigue) {
-        log.warn("ML service unavailable, calculating risk locally");
-
-        int riskScore = 0;
-        String riskLevel;
+    // Connect and read timeouts surface as an InterruptedIOException somewhere in the cause chain
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        if ((epiCompliance != null && epiCompliance < 85) || (fatigue != null && fatigue > 6)) {
-            riskScore = 75;
-            riskLevel = "ÉLEVÉ";
-        } else {
-            riskScore = 25;
-            riskLevel = "FAIBLE";
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
+    }
 
-        return new RiskPredictionResponse(
-                riskScore,
-                riskLevel,
-                List.of("Analyse effectuée en mode local (service ML indisponible)"));
+    // Fallback: Calculate risk locally if ML service is unavailable
+    private RiskPredictionResponse fallback(RiskFeatures features) {
+        fallbacks.incrementAndGet();
+        return ruleBasedRiskScorer.score(features);
     }
 }
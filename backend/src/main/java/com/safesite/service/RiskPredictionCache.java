@@ -0,0 +1,129 @@
+package com.safesite.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.safesite.dto.RiskFeatures;
+import com.safesite.dto.RiskPredictionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bounded memo of risk predictions keyed by the rules version and the features.
+ * <p>
+ * Only readings already at {@code app.risk.cache.precision} decimals are cached: rounding a
+ * finer reading could move it across a rule threshold (84.96 vs 85) and the recommendation
+ * texts quote the raw values, so such readings are always scored and never share an entry.
+ * The precision therefore bounds the key space without ever changing a prediction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RiskPredictionCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.risk.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.risk.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.risk.cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${app.risk.cache.precision:1}")
+    private int precision;
+
+    private Cache<Key, RiskPredictionResponse> cache;
+    private double scale;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        scale = Math.pow(10, precision);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "riskPredictions");
+    }
+
+    /**
+     * Cache key of a reading scored with the given rules, or {@code null} when the reading is
+     * finer than the cache precision and must not be cached.
+     */
+    public Key key(RiskFeatures features, String rulesVersion) {
+        if (!enabled
+                || !atPrecision(features.getTemperature())
+                || !atPrecision(features.getHumidity())
+                || !atPrecision(features.getEpiCompliance())
+                || !atPrecision(features.getFatigue())
+                || !atPrecision(features.getWorkingHours())) {
+            return null;
+        }
+        RiskFeatures normalized = RiskFeatures.builder()
+                .temperature(features.getTemperature())
+                .humidity(features.getHumidity())
+                .epiCompliance(features.getEpiCompliance())
+                .fatigue(features.getFatigue())
+                .workingHours(features.getWorkingHours())
+                .workersCount(features.getWorkersCount())
+                .hazardousMaterials(features.isHazardousMaterials())
+                .weatherConditions(features.getWeatherConditions().trim().toLowerCase(Locale.ROOT))
+                .build();
+        return new Key(rulesVersion, normalized);
+    }
+
+    public RiskPredictionResponse get(Key key) {
+        return key != null ? cache.getIfPresent(key) : null;
+    }
+
+    public void put(Key key, RiskPredictionResponse prediction) {
+        if (key != null) {
+            cache.put(key, new RiskPredictionResponse(
+                    prediction.getRiskScore(),
+                    prediction.getRiskLevel(),
+                    List.copyOf(prediction.getRecommendations())));
+        }
+    }
+
+    /**
+     * Drops every cached prediction; call it whenever the ML model or the rules change.
+     */
+    public void invalidateAll(String reason) {
+        log.info("Invalidating risk prediction cache ({} entries): {}", cache.estimatedSize(), reason);
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    // Exact comparison: -0.0 or NaN are not at precision and stay out of the cache
+    private boolean atPrecision(double value) {
+        return Double.compare(Math.round(value * scale) / scale, value) == 0;
+    }
+
+    public record Key(String rulesVersion, RiskFeatures features) {
+    }
+}
@@ -0,0 +1,352 @@
+package com.safesite.service;
+
+import com.safesite.dto.RiskSeriesPoint;
+import com.safesite.entity.SiteRiskRollup;
+import com.safesite.entity.SiteRiskRollupId;
+import com.safesite.event.ObservationScoredEvent;
+import com.safesite.repository.SiteRiskRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-site hourly risk rollups (count, mean/max score, count per level) for dashboard charts.
+ * <p>
+ * The most recent {@code app.rollup.ring-hours} hours of each site live in an in-memory ring
+ * buffer updated on every scored observation; dirty buckets are flushed to
+ * {@code site_risk_rollups} periodically, and older hours are read from that table.
+ * Raw observations are only read to backfill an empty rollup table, or by {@link #rebuild()}
+ * after stored risk results were re-scored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RiskRollupService {
+
+    private final SiteRiskRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.rollup.ring-hours:168}")
+    private int ringHours;
+
+    // Replaced as a whole when rebuild() swaps in the recomputed rings
+    private volatile Map<Long, SiteRing> rings = new ConcurrentHashMap<>();
+    // Buckets pushed out of a ring before being flushed: they replace the stored row
+    private final Queue<SiteRiskRollup> evicted = new ConcurrentLinkedQueue<>();
+    // Observations older than the ring window: they are added to the stored row
+    private final Queue<SiteRiskRollup> lateDeltas = new ConcurrentLinkedQueue<>();
+    // Observations scored while rebuild() recomputes the table, replayed onto the new rings
+    private volatile Queue<SiteRiskRollup> rebuildDeltas;
+    // Serializes the writers of the table: flushes and rebuild()
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Live updates share it; rebuild() only holds it exclusively to swap the rings
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (rollupRepository.count() == 0) {
+            int rows = rollupRepository.backfillFromObservations();
+            log.info("Backfilled {} hourly risk rollups from observations", rows);
+        }
+
+        rings = loadRings();
+    }
+
+    /**
+     * Recomputes every rollup from the observations, e.g. once stored risk results have been
+     * re-scored. Live updates keep going while the table is recomputed: they are captured
+     * and replayed onto the recomputed rings, which are then swapped in. Only flushes wait.
+     */
+    public int rebuild() {
+        flushLock.lock();
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                rollupRepository.deleteAllInBatch();
+                // Observations committed from here on may miss the INSERT ... SELECT snapshot
+                rebuildDeltas = new ConcurrentLinkedQueue<>();
+                return rollupRepository.backfillFromObservations();
+            });
+            Map<Long, SiteRing> rebuilt = loadRings();
+
+            swapLock.writeLock().lock();
+            try {
+                evicted.clear();
+                lateDeltas.clear();
+                LocalDateTime now = LocalDateTime.now();
+                SiteRiskRollup delta;
+                while ((delta = rebuildDeltas.poll()) != null) {
+                    if (!ring(rebuilt, delta.getId().getSiteId(), now).add(delta, evicted)) {
+                        lateDeltas.add(delta);
+                    }
+                }
+                rebuildDeltas = null;
+                rings = rebuilt;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            log.info("Rebuilt {} hourly risk rollups from observations", rows);
+            return rows != null ? rows : 0;
+        } finally {
+            rebuildDeltas = null;
+            flushLock.unlock();
+        }
+    }
+
+    private Map<Long, SiteRing> loadRings() {
+        Map<Long, SiteRing> loaded = new ConcurrentHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = truncateToHour(now).minusHours(ringHours - 1);
+        for (SiteRiskRollup rollup : rollupRepository.findAllSince(since)) {
+            ring(loaded, rollup.getId().getSiteId(), now).load(rollup);
+        }
+        return loaded;
+    }
+
+    @EventListener
+    public void onObservationScored(ObservationScoredEvent event) {
+        if (event.getSiteId() == null || event.getCreatedAt() == null) {
+            return;
+        }
+        SiteRiskRollup delta = toRollup(event.getSiteId(), truncateToHour(event.getCreatedAt()),
+                event.getRiskScore(), event.getRiskLevel());
+        swapLock.readLock().lock();
+        try {
+            Queue<SiteRiskRollup> captured = rebuildDeltas;
+            if (captured != null) {
+                captured.add(copyOf(delta, delta.getId().getBucketStart()));
+            }
+            if (!ring(rings, event.getSiteId(), LocalDateTime.now()).add(delta, evicted)) {
+                lateDeltas.add(delta);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rollup.flush-interval-ms:60000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushBuckets();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushBuckets() {
+        List<SiteRiskRollup> toSave = new ArrayList<>();
+        for (SiteRing ring : rings.values()) {
+            ring.drainDirty(toSave);
+        }
+        SiteRiskRollup bucket;
+        while ((bucket = evicted.poll()) != null) {
+            toSave.add(bucket);
+        }
+        if (!toSave.isEmpty()) {
+            rollupRepository.saveAll(toSave);
+        }
+
+        Map<SiteRiskRollupId, SiteRiskRollup> merged = new HashMap<>();
+        while ((bucket = lateDeltas.poll()) != null) {
+            merged.merge(bucket.getId(), bucket, RiskRollupService::accumulate);
+        }
+        for (SiteRiskRollup delta : merged.values()) {
+            SiteRiskRollup stored = rollupRepository.findById(delta.getId()).orElse(null);
+            rollupRepository.save(stored != null ? accumulate(stored, delta) : delta);
+        }
+    }
+
+    /**
+     * Returns the non-empty buckets of a site between {@code from} (inclusive) and {@code to}
+     * (exclusive), by hour or by day.
+     */
+    public List<RiskSeriesPoint> getRiskSeries(Long siteId, LocalDateTime from, LocalDateTime to, String bucket) {
+        boolean daily;
+        if ("day".equalsIgnoreCase(bucket)) {
+            daily = true;
+        } else if ("hour".equalsIgnoreCase(bucket)) {
+            daily = false;
+        } else {
+            throw new IllegalArgumentException("Unsupported bucket: " + bucket);
+        }
+
+        LocalDateTime start = daily ? from.truncatedTo(ChronoUnit.DAYS) : truncateToHour(from);
+        TreeMap<LocalDateTime, SiteRiskRollup> hours = new TreeMap<>();
+        for (SiteRiskRollup rollup : rollupRepository.findSeries(siteId, start, to)) {
+            hours.put(rollup.getId().getBucketStart(), rollup);
+        }
+        // Ring buckets hold the complete hour, including what has not been flushed yet
+        SiteRing ring = rings.get(siteId);
+        if (ring != null) {
+            ring.copyRange(start, to, hours);
+        }
+
+        TreeMap<LocalDateTime, SiteRiskRollup> buckets = hours;
+        if (daily) {
+            buckets = new TreeMap<>();
+            for (SiteRiskRollup hour : hours.values()) {
+                LocalDateTime day = hour.getId().getBucketStart().truncatedTo(ChronoUnit.DAYS);
+                buckets.merge(day, copyOf(hour, day), RiskRollupService::accumulate);
+            }
+        }
+
+        List<RiskSeriesPoint> series = new ArrayList<>(buckets.size());
+        for (Map.Entry<LocalDateTime, SiteRiskRollup> entry : buckets.entrySet()) {
+            SiteRiskRollup rollup = entry.getValue();
+            series.add(RiskSeriesPoint.builder()
+                    .bucketStart(entry.getKey())
+                    .count(rollup.getObservationCount())
+                    .meanRiskScore(rollup.getObservationCount() > 0
+                            ? (double) rollup.getRiskScoreSum() / rollup.getObservationCount()
+                            : null)
+                    .maxRiskScore(rollup.getRiskScoreMax())
+                    .highCount(rollup.getHighCount())
+                    .mediumCount(rollup.getMediumCount())
+                    .lowCount(rollup.getLowCount())
+                    .build());
+        }
+        return series;
+    }
+
+    private SiteRing ring(Map<Long, SiteRing> target, Long siteId, LocalDateTime now) {
+        return target.computeIfAbsent(siteId, id -> new SiteRing(ringHours, epochHour(truncateToHour(now))));
+    }
+
+    private static SiteRiskRollup toRollup(Long siteId, LocalDateTime hour, Integer riskScore, String riskLevel) {
+        int score = riskScore != null ? riskScore : 0;
+        boolean high = DashboardStatsService.ALERT_LEVELS.contains(riskLevel);
+        boolean medium = RuleBasedRiskScorer.LEVEL_MEDIUM.equals(riskLevel) || "MEDIUM".equals(riskLevel);
+        return SiteRiskRollup.builder()
+                .id(new SiteRiskRollupId(siteId, hour))
+                .observationCount(1)
+                .riskScoreSum(score)
+                .riskScoreMax(score)
+                .highCount(high ? 1 : 0)
+                .mediumCount(medium ? 1 : 0)
+                .lowCount(high || medium ? 0 : 1)
+                .build();
+    }
+
+    private static SiteRiskRollup accumulate(SiteRiskRollup target, SiteRiskRollup other) {
+        target.setObservationCount(target.getObservationCount() + other.getObservationCount());
+        target.setRiskScoreSum(target.getRiskScoreSum() + other.getRiskScoreSum());
+        target.setRiskScoreMax(Math.max(target.getRiskScoreMax(), other.getRiskScoreMax()));
+        target.setHighCount(target.getHighCount() + other.getHighCount());
+        target.setMediumCount(target.getMediumCount() + other.getMediumCount());
+        target.setLowCount(target.getLowCount() + other.getLowCount());
+        return target;
+    }
+
+    private static SiteRiskRollup copyOf(SiteRiskRollup rollup, LocalDateTime bucketStart) {
+        SiteRiskRollup copy = SiteRiskRollup.builder()
+                .id(new SiteRiskRollupId(rollup.getId().getSiteId(), bucketStart))
+                .build();
+        return accumulate(copy, rollup);
+    }
+
+    private static LocalDateTime truncateToHour(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static long epochHour(LocalDateTime hour) {
+        return hour.toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    /**
+     * Fixed-size ring of the most recent hourly buckets of one site. Critical sections are
+     * short and never block (no I/O inside), so plain monitors are enough and cannot pin a
+     * virtual thread across a blocking call.
+     */
+    private static final class SiteRing {
+        private final SiteRiskRollup[] buckets;
+        private final boolean[] dirty;
+        private long latestHour;
+
+        private SiteRing(int size, long currentHour) {
+            this.buckets = new SiteRiskRollup[size];
+            this.dirty = new boolean[size];
+            this.latestHour = currentHour;
+        }
+
+        synchronized void load(SiteRiskRollup rollup) {
+            long hour = epochHour(rollup.getId().getBucketStart());
+            if (inWindow(hour)) {
+                buckets[slot(hour)] = rollup;
+            }
+        }
+
+        /**
+         * Adds a one-observation delta. Returns {@code false} if its hour is older than the window.
+         */
+        synchronized boolean add(SiteRiskRollup delta, Queue<SiteRiskRollup> evicted) {
+            long hour = epochHour(delta.getId().getBucketStart());
+            if (hour > latestHour) {
+                latestHour = hour;
+            } else if (!inWindow(hour)) {
+                return false;
+            }
+
+            int slot = slot(hour);
+            SiteRiskRollup bucket = buckets[slot];
+            if (bucket == null || epochHour(bucket.getId().getBucketStart()) != hour) {
+                if (bucket != null && dirty[slot]) {
+                    evicted.add(bucket);
+                }
+                buckets[slot] = copyOf(delta, delta.getId().getBucketStart());
+            } else {
+                accumulate(bucket, delta);
+            }
+            dirty[slot] = true;
+            return true;
+        }
+
+        synchronized void drainDirty(List<SiteRiskRollup> out) {
+            for (int i = 0; i < buckets.length; i++) {
+                if (dirty[i]) {
+                    out.add(copyOf(buckets[i], buckets[i].getId().getBucketStart()));
+                    dirty[i] = false;
+                }
+            }
+        }
+
+        synchronized void copyRange(LocalDateTime from, LocalDateTime to, Map<LocalDateTime, SiteRiskRollup> out) {
+            for (SiteRiskRollup bucket : buckets) {
+                if (bucket == null) {
+                    continue;
+                }
+                LocalDateTime start = bucket.getId().getBucketStart();
+                if (inWindow(epochHour(start)) && !start.isBefore(from) && start.isBefore(to)) {
+                    out.put(start, copyOf(bucket, start));
+                }
+            }
+        }
+
+        private boolean inWindow(long hour) {
+            return hour > latestHour - buckets.length && hour <= latestHour;
+        }
+
+        private int slot(long hour) {
+            return (int) Math.floorMod(hour, (long) buckets.length);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.safesite.service;
+
+import com.safesite.dto.RiskFeatures;
+import com.safesite.dto.RiskPredictionResponse;
+
+/**
+ * Computes a risk prediction (score, level, recommendations) for an observation.
+ */
+public interface RiskScorer {
+
+    RiskPredictionResponse score(RiskFeatures features);
+}
@@ -0,0 +1,97 @@
+package com.safesite.service;
+
+import com.safesite.dto.RiskFeatures;
+import com.safesite.dto.RiskPredictionResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-process port of the rules served by the ML service ({@code ml_service/main.py}).
+ * Any change to the Python rules must be mirrored here.
+ */
+@Component
+public class RuleBasedRiskScorer implements RiskScorer {
+
+    public static final String LEVEL_HIGH = "ÉLEVÉ";
+    public static final String LEVEL_MEDIUM = "MOYEN";
+    public static final String LEVEL_LOW = "FAIBLE";
+
+    @Override
+    public RiskPredictionResponse score(RiskFeatures features) {
+        List<String> recommendations = new ArrayList<>();
+        int riskScore = 0;
+
+        boolean lowEpi = features.getEpiCompliance() < 85;
+        boolean highFatigue = features.getFatigue() > 6;
+
+        // EPI Compliance check
+        if (lowEpi) {
+            riskScore += 40;
+            recommendations.add("⚠️ Conformité EPI insuffisante (" + formatFloat(features.getEpiCompliance()) + "%). "
+                    + "Vérifier le port des équipements de protection.");
+        }
+
+        // Fatigue check
+        if (highFatigue) {
+            riskScore += 35;
+            recommendations.add("😴 Niveau de fatigue élevé (" + formatFloat(features.getFatigue()) + "/10). "
+                    + "Prévoir des pauses régulières et rotation des équipes.");
+        }
+
+        // Temperature check
+        double temperature = features.getTemperature();
+        if (temperature > 35) {
+            riskScore += 15;
+            recommendations.add("🌡️ Température élevée (" + formatFloat(temperature) + "°C). "
+                    + "Hydratation obligatoire et pauses à l'ombre.");
+        } else if (temperature != 0 && temperature < 5) {
+            riskScore += 10;
+            recommendations.add("❄️ Température basse (" + formatFloat(temperature) + "°C). "
+                    + "Équipements chauds et vigilance accrue.");
+        }
+
+        // Working hours check
+        if (features.getWorkingHours() > 10) {
+            riskScore += 10;
+            recommendations.add("⏰ Heures de travail excessives. Limiter à 10h maximum.");
+        }
+
+        // Hazardous materials check
+        if (features.isHazardousMaterials()) {
+            riskScore += 15;
+            recommendations.add("☢️ Présence de matériaux dangereux. Protocoles spéciaux requis.");
+        }
+
+        // Determine risk level
+        String riskLevel;
+        if (lowEpi || highFatigue) {
+            riskLevel = LEVEL_HIGH;
+            riskScore = Math.max(riskScore, 70);
+        } else if (riskScore >= 50) {
+            riskLevel = LEVEL_MEDIUM;
+        } else {
+            riskLevel = LEVEL_LOW;
+            if (recommendations.isEmpty()) {
+                recommendations.add("✅ Conditions de travail optimales. Continuer les bonnes pratiques.");
+            }
+        }
+
+        // Cap risk score at 100
+        riskScore = Math.min(riskScore, 100);
+
+        return new RiskPredictionResponse(riskScore, riskLevel, recommendations);
+    }
+
+    /**
+     * Formats a double the way Python's {@code str(float)} does for the values we receive
+     * (e.g. {@code 80.0}, {@code 7.5}), so recommendation texts match the ML service byte for byte.
+     */
+    static String formatFloat(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e16) {
+            return (long) value + ".0";
+        }
+        return Double.toString(value);
+    }
+}
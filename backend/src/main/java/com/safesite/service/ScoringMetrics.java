@@ -0,0 +1,36 @@
+package com.safesite.service;
+
+import com.safesite.event.ObservationScoredEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Risk distribution of scored observations: {@code safesite.observations.scored}
+ * (counter per risk level) and {@code safesite.observations.risk.score} (summary).
+ */
+@Component
+@RequiredArgsConstructor
+public class ScoringMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    @EventListener
+    public void onObservationScored(ObservationScoredEvent event) {
+        // Risk levels are a small fixed set (ÉLEVÉ/MOYEN/FAIBLE, or the ML service's labels)
+        Counter.builder("safesite.observations.scored")
+                .description("Scored observations by risk level")
+                .tag("level", event.getRiskLevel() != null ? event.getRiskLevel() : "UNKNOWN")
+                .register(meterRegistry)
+                .increment();
+        if (event.getRiskScore() != null) {
+            DistributionSummary.builder("safesite.observations.risk.score")
+                    .description("Risk score of scored observations")
+                    .register(meterRegistry)
+                    .record(event.getRiskScore());
+        }
+    }
+}
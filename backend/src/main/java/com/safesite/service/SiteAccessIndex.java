@@ -0,0 +1,247 @@
+package com.safesite.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the sites each user may see: the sites of the projects they are
+ * assigned to ({@code user_projects}). Site sets are bitmaps indexed by site id, so
+ * "can user X see site Y" is one bit test and "list my sites" reads one bitmap.
+ * <p>
+ * Built on startup with two queries, then kept up to date by the services that change
+ * assignments, sites and projects. Updates reported inside a transaction are applied once it
+ * commits (and dropped if it rolls back), so the index never shows uncommitted changes.
+ * Readers never lock: each user's bitmap is an immutable snapshot replaced on change
+ * (copy-on-write); writers are serialized on the index.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SiteAccessIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Guarded by this
+    private final Map<Long, BitSet> projectSites = new HashMap<>();
+    private final Map<Long, BitSet> projectUsers = new HashMap<>();
+    private final Map<Long, BitSet> userProjects = new HashMap<>();
+    private final Map<Long, Long> siteProjects = new HashMap<>();
+
+    // Published snapshots, never mutated once in the map
+    private final Map<Long, BitSet> userSites = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        projectSites.clear();
+        projectUsers.clear();
+        userProjects.clear();
+        siteProjects.clear();
+        jdbcTemplate.query("SELECT id, project_id FROM sites", rs -> {
+            long siteId = rs.getLong(1);
+            long projectId = rs.getLong(2);
+            siteProjects.put(siteId, projectId);
+            bits(projectSites, projectId).set(index(siteId));
+        });
+        jdbcTemplate.query("SELECT user_id, project_id FROM user_projects", rs -> {
+            long userId = rs.getLong(1);
+            long projectId = rs.getLong(2);
+            bits(userProjects, userId).set(index(projectId));
+            bits(projectUsers, projectId).set(index(userId));
+        });
+        userSites.clear();
+        for (Long userId : userProjects.keySet()) {
+            refresh(userId);
+        }
+        log.info("Built site access index: {} users, {} projects, {} sites",
+                userSites.size(), projectSites.size(), siteProjects.size());
+    }
+
+    public boolean canAccess(Long userId, Long siteId) {
+        if (userId == null || siteId == null || siteId > Integer.MAX_VALUE) {
+            return false;
+        }
+        BitSet sites = userSites.get(userId);
+        return sites != null && sites.get((int) (long) siteId);
+    }
+
+    /**
+     * Ids of the sites the user may see, in ascending order.
+     */
+    public long[] getSiteIds(Long userId) {
+        BitSet sites = userSites.get(userId);
+        return sites != null ? sites.stream().asLongStream().toArray() : new long[0];
+    }
+
+    public void onChefAssigned(Long userId, Long projectId) {
+        onAssignmentsChanged(List.of(userId), List.of(projectId), true);
+    }
+
+    public void onChefRemoved(Long userId, Long projectId) {
+        onAssignmentsChanged(List.of(userId), List.of(projectId), false);
+    }
+
+    /**
+     * Assigns (or removes) every user to (from) every project, refreshing each user once.
+     */
+    public void onAssignmentsChanged(Collection<Long> userIds, Collection<Long> projectIds, boolean assigned) {
+        List<Long> users = List.copyOf(userIds);
+        List<Long> projects = List.copyOf(projectIds);
+        afterCommit(() -> applyAssignments(users, projects, assigned));
+    }
+
+    private synchronized void applyAssignments(List<Long> userIds, List<Long> projectIds, boolean assigned) {
+        for (Long userId : userIds) {
+            for (Long projectId : projectIds) {
+                if (assigned) {
+                    bits(userProjects, userId).set(index(projectId));
+                    bits(projectUsers, projectId).set(index(userId));
+                } else {
+                    BitSet projects = userProjects.get(userId);
+                    if (projects != null) {
+                        projects.clear(index(projectId));
+                    }
+                    BitSet users = projectUsers.get(projectId);
+                    if (users != null) {
+                        users.clear(index(userId));
+                    }
+                }
+            }
+            refresh(userId);
+        }
+    }
+
+    public void onSiteCreated(Long siteId, Long projectId) {
+        afterCommit(() -> applySiteCreated(siteId, projectId));
+    }
+
+    public void onSiteDeleted(Long siteId) {
+        afterCommit(() -> applySiteDeleted(siteId));
+    }
+
+    public void onProjectDeleted(Long projectId) {
+        afterCommit(() -> applyProjectDeleted(projectId));
+    }
+
+    public void onUserDeleted(Long userId) {
+        afterCommit(() -> applyUserDeleted(userId));
+    }
+
+    private synchronized void applySiteCreated(Long siteId, Long projectId) {
+        siteProjects.put(siteId, projectId);
+        bits(projectSites, projectId).set(index(siteId));
+        updateUsersOf(projectId, siteId, true);
+    }
+
+    private synchronized void applySiteDeleted(Long siteId) {
+        Long projectId = siteProjects.remove(siteId);
+        if (projectId == null) {
+            return;
+        }
+        BitSet sites = projectSites.get(projectId);
+        if (sites != null) {
+            sites.clear(index(siteId));
+        }
+        updateUsersOf(projectId, siteId, false);
+    }
+
+    private synchronized void applyProjectDeleted(Long projectId) {
+        BitSet sites = projectSites.remove(projectId);
+        if (sites != null) {
+            sites.stream().forEach(siteId -> siteProjects.remove((long) siteId));
+        }
+        BitSet users = projectUsers.remove(projectId);
+        if (users != null) {
+            users.stream().forEach(userId -> {
+                BitSet projects = userProjects.get((long) userId);
+                if (projects != null) {
+                    projects.clear(index(projectId));
+                }
+                refresh((long) userId);
+            });
+        }
+    }
+
+    private synchronized void applyUserDeleted(Long userId) {
+        BitSet projects = userProjects.remove(userId);
+        if (projects != null) {
+            projects.stream().forEach(projectId -> {
+                BitSet users = projectUsers.get((long) projectId);
+                if (users != null) {
+                    users.clear(index(userId));
+                }
+            });
+        }
+        userSites.remove(userId);
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    // Recomputes a user's snapshot as the union of their projects' sites
+    private void refresh(Long userId) {
+        BitSet projects = userProjects.get(userId);
+        BitSet sites = new BitSet();
+        if (projects != null) {
+            projects.stream().forEach(projectId -> {
+                BitSet projectSiteIds = projectSites.get((long) projectId);
+                if (projectSiteIds != null) {
+                    sites.or(projectSiteIds);
+                }
+            });
+        }
+        if (sites.isEmpty()) {
+            userSites.remove(userId);
+        } else {
+            userSites.put(userId, sites);
+        }
+    }
+
+    // Copy-on-write of the snapshots of the users assigned to a project
+    private void updateUsersOf(Long projectId, Long siteId, boolean add) {
+        BitSet users = projectUsers.get(projectId);
+        if (users == null) {
+            return;
+        }
+        users.stream().forEach(userId -> {
+            BitSet current = userSites.get((long) userId);
+            BitSet copy = current != null ? (BitSet) current.clone() : new BitSet();
+            copy.set(index(siteId), add);
+            if (copy.isEmpty()) {
+                userSites.remove((long) userId);
+            } else {
+                userSites.put((long) userId, copy);
+            }
+        });
+    }
+
+    private static BitSet bits(Map<Long, BitSet> map, Long key) {
+        return map.computeIfAbsent(key, k -> new BitSet());
+    }
+
+    private static int index(Long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,163 @@
+package com.safesite.service;
+
+import com.safesite.dto.SiteTrendResponse;
+import com.safesite.event.ObservationScoredEvent;
+import com.safesite.repository.ObservationRepository;
+import com.safesite.repository.TrendSample;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-site risk trend: exponentially weighted moving averages (EWMA) of the risk score,
+ * fatigue and EPI compliance, plus a smoothed slope of the risk score (Holt's linear trend),
+ * updated on every scored observation in O(1).
+ * <p>
+ * On startup the state is rebuilt from the last {@code app.trend.warmup-observations}
+ * observations of each site; older readings weigh less than {@code (1 - alpha)^n} and are
+ * not worth replaying. The observation count and last update time are restored from the data.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SiteTrendService {
+
+    public static final String RISING = "RISING";
+    public static final String FALLING = "FALLING";
+    public static final String STABLE = "STABLE";
+
+    private final ObservationRepository observationRepository;
+
+    @Value("${app.trend.alpha:0.2}")
+    private double alpha;
+
+    @Value("${app.trend.beta:0.1}")
+    private double beta;
+
+    @Value("${app.trend.warmup-observations:100}")
+    private int warmupObservations;
+
+    @Value("${app.trend.slope-threshold:0.5}")
+    private double slopeThreshold;
+
+    private final Map<Long, SiteTrend> trends = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<TrendSample> samples = observationRepository.findRecentTrendSamples(warmupObservations);
+        for (TrendSample sample : samples) {
+            SiteTrend trend = trend(sample.getSiteId());
+            trend.update(sample.getRiskScore(), sample.getFatigue(), sample.getEpiCompliance(),
+                    sample.getCreatedAt());
+            trend.restoreCount(sample.getSiteTotal());
+        }
+        log.info("Rebuilt risk trends of {} sites from {} observations", trends.size(), samples.size());
+    }
+
+    /**
+     * Drops the state and replays the recent observations again, e.g. after re-scoring.
+     */
+    public void reload() {
+        trends.clear();
+        load();
+    }
+
+    // Imported history arrives out of order; it is picked up by the next startup rebuild
+    @EventListener
+    public void onObservationScored(ObservationScoredEvent event) {
+        if (event.getSiteId() == null || event.isHistorical()) {
+            return;
+        }
+        trend(event.getSiteId()).update(event.getRiskScore(), event.getFatigue(),
+                event.getEpiCompliance(), event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now());
+    }
+
+    public SiteTrendResponse getTrend(Long siteId) {
+        SiteTrend trend = trends.get(siteId);
+        if (trend == null) {
+            return SiteTrendResponse.builder()
+                    .siteId(siteId)
+                    .direction(STABLE)
+                    .build();
+        }
+        return trend.snapshot(siteId);
+    }
+
+    public void evict(Long siteId) {
+        trends.remove(siteId);
+    }
+
+    private SiteTrend trend(Long siteId) {
+        return trends.computeIfAbsent(siteId, id -> new SiteTrend());
+    }
+
+    /**
+     * Smoothed state of one site. Updates are a handful of arithmetic operations, so a plain
+     * monitor is enough.
+     */
+    private final class SiteTrend {
+        private long count;
+        private Double riskLevel;
+        private double riskSlope;
+        private Double fatigue;
+        private Double epiCompliance;
+        private LocalDateTime updatedAt;
+
+        synchronized void update(Integer riskScore, Double fatigueValue, Double epiValue, LocalDateTime at) {
+            count++;
+            if (riskScore != null) {
+                if (riskLevel == null) {
+                    riskLevel = riskScore.doubleValue();
+                } else {
+                    double previous = riskLevel;
+                    riskLevel = alpha * riskScore + (1 - alpha) * (previous + riskSlope);
+                    riskSlope = beta * (riskLevel - previous) + (1 - beta) * riskSlope;
+                }
+            }
+            fatigue = ewma(fatigue, fatigueValue);
+            epiCompliance = ewma(epiCompliance, epiValue);
+            updatedAt = at;
+        }
+
+        synchronized void restoreCount(Long total) {
+            if (total != null) {
+                count = total;
+            }
+        }
+
+        synchronized SiteTrendResponse snapshot(Long siteId) {
+            String direction = riskSlope > slopeThreshold ? RISING
+                    : riskSlope < -slopeThreshold ? FALLING
+                    : STABLE;
+            return SiteTrendResponse.builder()
+                    .siteId(siteId)
+                    .observationCount(count)
+                    .riskScoreEwma(round(riskLevel))
+                    .fatigueEwma(round(fatigue))
+                    .epiComplianceEwma(round(epiCompliance))
+                    .riskScoreSlope(round(riskSlope))
+                    .direction(direction)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+
+        private Double ewma(Double current, Double value) {
+            if (value == null) {
+                return current;
+            }
+            return current == null ? value : alpha * value + (1 - alpha) * current;
+        }
+    }
+
+    private static Double round(Double value) {
+        return value != null ? Math.round(value * 100) / 100.0 : null;
+    }
+}
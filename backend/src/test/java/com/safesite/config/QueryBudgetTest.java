@@ -0,0 +1,134 @@
+package com.safesite.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safesite.dto.ObservationRequest;
+import com.safesite.entity.Site;
+import com.safesite.repository.SiteRepository;
+import com.safesite.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails when an endpoint issues more SQL statements than its budget in
+ * {@code app.query-budget.endpoints}. MockMvc runs the request on the test thread, so
+ * {@link QueryCountInspector} counts exactly the statements of that request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QueryBudgetProperties budgets;
+
+    private Long siteId;
+
+    @BeforeEach
+    void seedObservations() throws Exception {
+        siteId = siteRepository.findAll().get(0).getId();
+        // Enough rows that a per-row query (N+1) would blow any listing budget. The last one
+        // catalogues the EPI and fatigue templates, which are only inserted on first use
+        List<ObservationRequest> seed = new ArrayList<>(Collections.nCopies(19, observation(90.0, 3.0)));
+        seed.add(observation(70.0, 9.0));
+        mockMvc.perform(post("/api/observations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(seed)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listingsStayWithinBudget() throws Exception {
+        assertWithinBudget("GET /api/observations", get("/api/observations"));
+        assertWithinBudget("GET /api/observations/page", get("/api/observations/page"));
+        assertWithinBudget("GET /api/observations/site/{siteId}", get("/api/observations/site/" + siteId));
+        assertWithinBudget("GET /api/sites", get("/api/sites"));
+        assertWithinBudget("GET /api/projects", get("/api/projects"));
+    }
+
+    @Test
+    void userSitesStayWithinBudget() throws Exception {
+        Site site = siteRepository.findAll().get(0);
+        String assignment = "/api/projects/" + site.getProject().getId() + "/chefs/"
+                + userRepository.findByEmail("chef@safesite.ai").orElseThrow().getId();
+        mockMvc.perform(post(assignment)).andExpect(status().isOk());
+        try {
+            assertWithinBudget("GET /api/users/by-email/{email}/sites", get("/api/users/by-email/chef@safesite.ai/sites"));
+        } finally {
+            mockMvc.perform(delete(assignment)).andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void statsStayWithinBudget() throws Exception {
+        assertWithinBudget("GET /api/stats", get("/api/stats"));
+    }
+
+    @Test
+    void creationStaysWithinBudget() throws Exception {
+        // Readings quoting values never seen before must not touch the catalog table
+        for (int i = 0; i < 3; i++) {
+            assertWithinBudget("POST /api/observations", post("/api/observations")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(observation(80.0 + i, 7.5 + i / 10.0))));
+        }
+    }
+
+    @Test
+    void batchCreationStaysWithinBudget() throws Exception {
+        List<ObservationRequest> batch = new ArrayList<>(40);
+        for (int i = 0; i < 40; i++) {
+            batch.add(observation(60.0 + i / 10.0, 8.0));
+        }
+        assertWithinBudget("POST /api/observations/batch", post("/api/observations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)));
+    }
+
+    private void assertWithinBudget(String endpoint, RequestBuilder request) throws Exception {
+        int budget = budgets.getEndpoints().getOrDefault(endpoint, budgets.getDefaultBudget());
+        QueryCountInspector.reset();
+        mockMvc.perform(request).andExpect(status().isOk());
+        int statements = QueryCountInspector.count();
+        assertTrue(statements <= budget,
+                endpoint + " issued " + statements + " SQL statements (budget " + budget + ")");
+    }
+
+    private ObservationRequest observation(double epiCompliance, double fatigue) {
+        ObservationRequest request = new ObservationRequest();
+        request.setSiteId(siteId);
+        request.setTemperature(22.0);
+        request.setEpiCompliance(epiCompliance);
+        request.setFatigue(fatigue);
+        request.setWorkingHours(8.0);
+        return request;
+    }
+}
@@ -0,0 +1,119 @@
+package com.safesite.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safesite.dto.LoginRequest;
+import com.safesite.dto.ObservationRequest;
+import com.safesite.entity.Site;
+import com.safesite.repository.SiteRepository;
+import com.safesite.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AlertControllerTest {
+
+    private static final String CHEF = "chef@safesite.ai";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void anonymousCallersCannotSubscribe() throws Exception {
+        mockMvc.perform(get("/api/alerts/stream"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void subscribersOnlyReceiveAlertsOfTheirSites() throws Exception {
+        Site site = siteRepository.findAll().get(0);
+        Long projectId = site.getProject().getId();
+        Long chefId = userRepository.findByEmail(CHEF).orElseThrow().getId();
+
+        MockHttpServletResponse chefStream = subscribe(CHEF);
+        MockHttpServletResponse adminStream = subscribe("admin@safesite.ai");
+
+        createHighRiskObservation(site.getId(), 41.0);
+        awaitAlert(adminStream, 1);
+        assertFalse(chefStream.getContentAsString().contains("event:alert"));
+
+        mockMvc.perform(post("/api/projects/" + projectId + "/chefs/" + chefId)).andExpect(status().isOk());
+        try {
+            createHighRiskObservation(site.getId(), 42.0);
+            awaitAlert(adminStream, 2);
+            awaitAlert(chefStream, 1);
+        } finally {
+            mockMvc.perform(delete("/api/projects/" + projectId + "/chefs/" + chefId)).andExpect(status().isOk());
+        }
+    }
+
+    private MockHttpServletResponse subscribe(String email) throws Exception {
+        return mockMvc.perform(get("/api/alerts/stream").header(HttpHeaders.AUTHORIZATION, bearer(email)))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private void createHighRiskObservation(Long siteId, double epiCompliance) throws Exception {
+        ObservationRequest request = new ObservationRequest();
+        request.setSiteId(siteId);
+        request.setTemperature(39.0);
+        request.setEpiCompliance(epiCompliance);
+        request.setFatigue(9.0);
+        request.setWorkingHours(12.0);
+        request.setHazardousMaterials(true);
+        mockMvc.perform(post("/api/observations").param("async", "false")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+
+    private static void awaitAlert(MockHttpServletResponse stream, int count) throws Exception {
+        for (int i = 0; i < 100 && alerts(stream) < count; i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(alerts(stream) >= count, stream.getContentAsString());
+    }
+
+    private static int alerts(MockHttpServletResponse stream) throws Exception {
+        return List.of(stream.getContentAsString().split("event:alert", -1)).size() - 1;
+    }
+
+    private String bearer(String email) throws Exception {
+        LoginRequest login = new LoginRequest();
+        login.setEmail(email);
+        login.setPassword("pass");
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(login)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + objectMapper.readTree(body).path("token").asText();
+    }
+}
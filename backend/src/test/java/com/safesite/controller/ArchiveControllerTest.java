@@ -0,0 +1,58 @@
+package com.safesite.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safesite.dto.LoginRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ArchiveControllerTest {
+
+    private static final String REBUILD = "/api/archive/rebuild";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void onlyAdminsRebuildTheArchive() throws Exception {
+        mockMvc.perform(post(REBUILD))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(REBUILD).header(HttpHeaders.AUTHORIZATION, bearer("chef@safesite.ai")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(REBUILD).header(HttpHeaders.AUTHORIZATION, bearer("admin@safesite.ai")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void authenticatedUsersStillReadTheArchive() throws Exception {
+        mockMvc.perform(get("/api/archive").header(HttpHeaders.AUTHORIZATION, bearer("chef@safesite.ai")))
+                .andExpect(status().isOk());
+    }
+
+    private String bearer(String email) throws Exception {
+        LoginRequest login = new LoginRequest();
+        login.setEmail(email);
+        login.setPassword("pass");
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(login)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + objectMapper.readTree(body).path("token").asText();
+    }
+}
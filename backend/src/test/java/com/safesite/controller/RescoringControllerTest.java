@@ -0,0 +1,60 @@
+package com.safesite.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safesite.dto.LoginRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RescoringControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void onlyAdminsStartOrResumeRescoring() throws Exception {
+        String chef = bearer("chef@safesite.ai");
+        mockMvc.perform(post("/api/rescoring").header(HttpHeaders.AUTHORIZATION, chef))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/rescoring/1/resume").header(HttpHeaders.AUTHORIZATION, chef))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/rescoring").header(HttpHeaders.AUTHORIZATION, chef))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/rescoring").header(HttpHeaders.AUTHORIZATION, bearer("admin@safesite.ai")))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void anonymousCallersCannotStartRescoring() throws Exception {
+        mockMvc.perform(post("/api/rescoring"))
+                .andExpect(status().isForbidden());
+    }
+
+    private String bearer(String email) throws Exception {
+        LoginRequest login = new LoginRequest();
+        login.setEmail(email);
+        login.setPassword("pass");
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(login)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + objectMapper.readTree(body).path("token").asText();
+    }
+}
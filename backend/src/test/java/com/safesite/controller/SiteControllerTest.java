@@ -0,0 +1,62 @@
+package com.safesite.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safesite.entity.Site;
+import com.safesite.repository.SiteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SiteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Test
+    void pagesWalkEverySiteAndEndWithoutAnEmptyPage() throws Exception {
+        List<Long> allIds = siteRepository.findAll().stream().map(Site::getId).sorted().toList();
+
+        JsonNode single = page("/api/sites/page?limit=" + allIds.size());
+        assertEquals(allIds.size(), single.path("items").size());
+        assertTrue(single.path("nextCursor").isNull());
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = page("/api/sites/page?limit=2" + (cursor != null ? "&cursor=" + cursor : ""));
+            assertTrue(page.path("items").size() > 0);
+            page.path("items").forEach(site -> walked.add(site.path("id").asLong()));
+            cursor = page.path("nextCursor").isNull() ? null : page.path("nextCursor").asText();
+        } while (cursor != null);
+        assertEquals(allIds, walked);
+
+        mockMvc.perform(get("/api/sites/page?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    private JsonNode page(String url) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,106 @@
+package com.safesite.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safesite.entity.Site;
+import com.safesite.entity.User;
+import com.safesite.repository.SiteRepository;
+import com.safesite.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTest {
+
+    private static final String CHEF = "chef@safesite.ai";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void listsTheSitesOfAssignedProjects() throws Exception {
+        Long projectId = siteRepository.findAll().get(0).getProject().getId();
+        Long chefId = userRepository.findByEmail(CHEF).orElseThrow().getId();
+        assertEquals(List.of(), siteIdsOf(CHEF));
+
+        mockMvc.perform(post("/api/projects/" + projectId + "/chefs/" + chefId)).andExpect(status().isOk());
+        List<Long> projectSites = siteRepository.findByProjectId(projectId).stream().map(Site::getId).sorted().toList();
+        assertEquals(projectSites, siteIdsOf(CHEF));
+
+        mockMvc.perform(post("/api/projects/" + projectId + "/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Gare Pleyel - Accès Est\",\"type\":\"Gare souterraine\"}"))
+                .andExpect(status().isOk());
+        assertEquals(projectSites.size() + 1, siteIdsOf(CHEF).size());
+
+        mockMvc.perform(delete("/api/projects/" + projectId + "/chefs/" + chefId)).andExpect(status().isOk());
+        assertEquals(List.of(), siteIdsOf(CHEF));
+    }
+
+    @Test
+    void pagesEndWithoutAnEmptyPageAndExposeNoEntityFields() throws Exception {
+        List<Long> allIds = userRepository.findAll().stream().map(User::getId).sorted().toList();
+
+        JsonNode single = page("/api/users/page?limit=" + allIds.size());
+        assertEquals(allIds.size(), single.path("items").size());
+        assertTrue(single.path("nextCursor").isNull());
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = page("/api/users/page?limit=1" + (cursor != null ? "&cursor=" + cursor : ""));
+            for (JsonNode user : page.path("items")) {
+                assertFalse(user.has("password"));
+                walked.add(user.path("id").asLong());
+            }
+            cursor = page.path("nextCursor").isNull() ? null : page.path("nextCursor").asText();
+        } while (cursor != null);
+        assertEquals(allIds, walked);
+
+        mockMvc.perform(get("/api/users/page?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    private JsonNode page(String url) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private List<Long> siteIdsOf(String email) throws Exception {
+        String body = mockMvc.perform(get("/api/users/by-email/" + email + "/sites"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode site : objectMapper.readTree(body)) {
+            ids.add(site.path("id").asLong());
+        }
+        return ids;
+    }
+}
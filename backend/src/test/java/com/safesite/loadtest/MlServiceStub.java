@@ -0,0 +1,110 @@
+package com.safesite.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safesite.dto.RiskFeatures;
+import com.safesite.dto.RiskPredictionResponse;
+import com.safesite.service.RuleBasedRiskScorer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the FastAPI ML service. Answers {@code /predict} with the same
+ * rules as the Python model, after a configurable latency, and fails a configurable
+ * fraction of the calls with HTTP 500. Shared by the tests and the load test.
+ */
+public class MlServiceStub implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RuleBasedRiskScorer scorer = new RuleBasedRiskScorer();
+    private final long latencyMs;
+    private final double errorRate;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    public MlServiceStub(long latencyMs, double errorRate, int threads) throws IOException {
+        this.latencyMs = latencyMs;
+        this.errorRate = errorRate;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/predict", this::predict);
+        server.createContext("/health", exchange -> respond(exchange, 200, Map.of("status", "healthy")));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    private void predict(HttpExchange exchange) throws IOException {
+        calls.incrementAndGet();
+        Map<?, ?> body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = objectMapper.readValue(in, Map.class);
+        }
+
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            failures.incrementAndGet();
+            respond(exchange, 500, Map.of("detail", "stub failure"));
+            return;
+        }
+
+        RiskPredictionResponse prediction = scorer.score(RiskFeatures.of(
+                doubleOf(body.get("temperature")),
+                doubleOf(body.get("humidity")),
+                doubleOf(body.get("epi_compliance")),
+                doubleOf(body.get("fatigue")),
+                doubleOf(body.get("working_hours")),
+                body.get("workers_count") instanceof Number n ? n.intValue() : null,
+                (Boolean) body.get("hazardous_materials"),
+                (String) body.get("weather_conditions")));
+        respond(exchange, 200, prediction);
+    }
+
+    private static Double doubleOf(Object value) {
+        return value instanceof Number n ? n.doubleValue() : null;
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package com.safesite.service;
+
+import com.safesite.dto.ObservationRequest;
+import com.safesite.entity.Observation;
+import com.safesite.entity.Site;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class AnomalyDetectorTest {
+
+    private static final Long SITE_ID = 1L;
+
+    private AnomalyDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new AnomalyDetector(mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(detector, "enabled", true);
+        ReflectionTestUtils.setField(detector, "zThreshold", 3.0);
+        ReflectionTestUtils.setField(detector, "minSamples", 5L);
+    }
+
+    @Test
+    void scoringLeavesTheBaselineUnchanged() {
+        for (int i = 0; i < 10; i++) {
+            detector.record(observation(5.0 + (i % 2)));
+        }
+        // Without folding, repeated outliers keep being flagged
+        for (int i = 0; i < 50; i++) {
+            assertEquals("fatigue", detector.score(SITE_ID, request(10.0)));
+        }
+        assertNull(detector.score(SITE_ID, request(5.5)));
+    }
+
+    @Test
+    void onlyRecordedObservationsMoveTheBaseline() {
+        for (int i = 0; i < 4; i++) {
+            detector.record(observation(5.0 + (i % 2)));
+        }
+        detector.score(SITE_ID, request(5.0));
+        // Still below min-samples: the scored reading was not counted
+        assertNull(detector.score(SITE_ID, request(10.0)));
+
+        detector.record(observation(5.0));
+        assertEquals("fatigue", detector.score(SITE_ID, request(10.0)));
+    }
+
+    private static ObservationRequest request(double fatigue) {
+        ObservationRequest request = new ObservationRequest();
+        request.setSiteId(SITE_ID);
+        request.setFatigue(fatigue);
+        return request;
+    }
+
+    private static Observation observation(double fatigue) {
+        Site site = new Site();
+        site.setId(SITE_ID);
+        return Observation.builder().site(site).fatigue(fatigue).build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.safesite.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MlCircuitBreakerTest {
+
+    private MlCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new MlCircuitBreaker();
+        ReflectionTestUtils.setField(breaker, "failureThreshold", 2);
+        ReflectionTestUtils.setField(breaker, "openDurationMs", 0L);
+    }
+
+    @Test
+    void lateOutcomesOfOtherCallsDoNotReleaseTheProbe() throws Exception {
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            open();
+            assertTrue(breaker.allowRequest());
+            assertEquals(MlCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+            // A call that started while the circuit was closed reports late on another thread
+            run(other, () -> {
+                breaker.releaseProbe();
+                breaker.recordSuccess();
+                breaker.recordFailure();
+            });
+            assertEquals(MlCircuitBreaker.State.HALF_OPEN, breaker.getState());
+            assertFalse(CompletableFuture.supplyAsync(breaker::allowRequest, other).get());
+
+            breaker.recordSuccess();
+            assertEquals(MlCircuitBreaker.State.CLOSED, breaker.getState());
+            assertTrue(CompletableFuture.supplyAsync(breaker::allowRequest, other).get());
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedProbeReopensAndReleasedProbeCanBeRetaken() throws Exception {
+        open();
+        assertTrue(breaker.allowRequest());
+        breaker.releaseProbe();
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+        assertEquals(MlCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void open() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(MlCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static void run(ExecutorService executor, Runnable task) throws Exception {
+        CompletableFuture.runAsync(task, executor).get();
+    }
+}
@@ -0,0 +1,76 @@
+package com.safesite.service;
+
+import com.safesite.dto.ObservationBatchResponse;
+import com.safesite.dto.ObservationRequest;
+import com.safesite.loadtest.MlServiceStub;
+import com.safesite.repository.SiteRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ObservationBatchScoringTest {
+
+    private static final MlServiceStub STUB = startStub();
+
+    @Autowired
+    private ObservationService observationService;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @DynamicPropertySource
+    static void mlService(DynamicPropertyRegistry registry) {
+        registry.add("app.risk.scorer", () -> "ml");
+        registry.add("app.risk.cache.enabled", () -> "false");
+        registry.add("app.ml-service.url", STUB::getUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void identicalReadingsOfABatchAreScoredOnce() {
+        Long siteId = siteRepository.findAll().get(0).getId();
+        List<ObservationRequest> batch = List.of(
+                request(siteId, 91.0), request(siteId, 91.0), request(null, 91.0),
+                request(siteId, 91.0), request(siteId, 72.0));
+        long callsBefore = STUB.getCalls();
+
+        ObservationBatchResponse response = observationService.createObservations(batch, null);
+
+        assertEquals(4, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertEquals(2, STUB.getCalls() - callsBefore);
+        assertEquals(response.getItems().get(0).getRiskScore(), response.getItems().get(3).getRiskScore());
+    }
+
+    private static ObservationRequest request(Long siteId, double epiCompliance) {
+        ObservationRequest request = new ObservationRequest();
+        request.setSiteId(siteId);
+        request.setEpiCompliance(epiCompliance);
+        request.setFatigue(6.0);
+        return request;
+    }
+
+    private static MlServiceStub startStub() {
+        try {
+            return new MlServiceStub(0, 0, 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.safesite.service;
+
+import com.safesite.dto.BatchJobResponse;
+import com.safesite.repository.SiteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ObservationImportServiceTest {
+
+    @Autowired
+    private ObservationImportService importService;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Test
+    void rowsWithoutEpiComplianceOrFatigueAreRejected() throws Exception {
+        Long siteId = siteRepository.findAll().get(0).getId();
+        String csv = "siteId,temperature,epiCompliance,fatigue\n"
+                + siteId + ",25.0,90.0,4.0\n"
+                + siteId + ",25.0,,4.0\n"
+                + siteId + ",25.0,90.0,\n";
+        MockMultipartFile file = new MockMultipartFile("file", "observations.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        BatchJobResponse job = importService.submit(file, null, null);
+        for (int i = 0; i < 100 && !isFinished(job); i++) {
+            Thread.sleep(100);
+            job = importService.getJobStatus(job.getId());
+        }
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(3, job.getProcessedItems());
+        assertEquals(2, job.getFailedItems());
+        ByteArrayOutputStream rejects = new ByteArrayOutputStream();
+        importService.writeRejects(job.getId(), rejects);
+        String report = rejects.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("3,\"Missing epicompliance\""), report);
+        assertTrue(report.contains("4,\"Missing fatigue\""), report);
+    }
+
+    private static boolean isFinished(BatchJobResponse job) {
+        return "COMPLETED".equals(job.getStatus()) || "FAILED".equals(job.getStatus());
+    }
+}
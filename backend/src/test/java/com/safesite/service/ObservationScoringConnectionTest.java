@@ -0,0 +1,95 @@
+package com.safesite.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safesite.dto.ObservationRequest;
+import com.safesite.loadtest.MlServiceStub;
+import com.safesite.repository.SiteRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Creating an observation must not hold a database connection while the ML service scores it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ObservationScoringConnectionTest {
+
+    private static final MlServiceStub STUB = startStub();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @DynamicPropertySource
+    static void mlService(DynamicPropertyRegistry registry) {
+        registry.add("app.risk.scorer", () -> "ml");
+        registry.add("app.risk.cache.enabled", () -> "false");
+        registry.add("app.ml-service.url", STUB::getUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void noConnectionIsHeldWhileTheMlServiceScores() throws Exception {
+        ObservationRequest request = new ObservationRequest();
+        request.setSiteId(siteRepository.findAll().get(0).getId());
+        request.setEpiCompliance(85.0);
+        request.setFatigue(4.0);
+        byte[] body = objectMapper.writeValueAsBytes(request);
+        long callsBefore = STUB.getCalls();
+
+        CompletableFuture<Integer> status = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(post("/api/observations").param("async", "false")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (STUB.getCalls() == callsBefore && !status.isDone()) {
+            Thread.sleep(10);
+        }
+
+        // The stub is sleeping on the call: the request must not be holding a connection
+        assertEquals(0, dataSource.getHikariPoolMXBean().getActiveConnections());
+        assertEquals(200, status.get());
+    }
+
+    private static MlServiceStub startStub() {
+        try {
+            return new MlServiceStub(1000, 0, 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.safesite.service;
+
+import com.safesite.entity.Recommendation;
+import com.safesite.repository.RecommendationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecommendationCatalogTest {
+
+    private static final String LOW_EPI = "⚠️ Conformité EPI insuffisante (80.0%). Vérifier le port des équipements de protection.";
+    private static final String HAZARDOUS = "☢️ Présence de matériaux dangereux. Protocoles spéciaux requis.";
+
+    private final RecommendationRepository repository = mock(RecommendationRepository.class);
+    private final AtomicInteger nextId = new AtomicInteger(3);
+    private RecommendationCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findAll()).thenReturn(List.of(
+                new Recommendation(1, HAZARDOUS),
+                // Legacy entry holding a full text, from before templates
+                new Recommendation(2, "😴 Niveau de fatigue élevé (7.5/10). Prévoir des pauses régulières et rotation des équipes.")));
+        when(repository.findByText(anyString())).thenReturn(Optional.empty());
+        when(repository.save(any())).thenAnswer(invocation -> {
+            Recommendation recommendation = invocation.getArgument(0);
+            return new Recommendation(nextId.getAndIncrement(), recommendation.getText());
+        });
+        catalog = new RecommendationCatalog(repository);
+        catalog.load();
+    }
+
+    @Test
+    void storesValuesNextToTheTemplateId() {
+        assertEquals("3:80.0,1", catalog.encode(List.of(LOW_EPI, HAZARDOUS)));
+        verify(repository).save(new Recommendation(null,
+                "⚠️ Conformité EPI insuffisante ({}%). Vérifier le port des équipements de protection."));
+    }
+
+    @Test
+    void roundTripsTexts() {
+        List<String> texts = List.of(LOW_EPI, HAZARDOUS, "❄️ Température basse (-2.0°C). Équipements chauds et vigilance accrue.");
+        assertEquals(texts, catalog.decode(catalog.encode(texts)));
+    }
+
+    @Test
+    void newValuesReuseTheTemplate() {
+        catalog.encode(List.of(LOW_EPI));
+        String encoded = catalog.encode(List.of(LOW_EPI.replace("80.0", "72.5")));
+        assertEquals("3:72.5", encoded);
+        verify(repository, times(1)).save(any());
+        assertEquals(List.of(LOW_EPI.replace("80.0", "72.5")), catalog.decode(encoded));
+    }
+
+    @Test
+    void decodesPlainIdsToSharedInstances() {
+        assertSame(HAZARDOUS, catalog.decode("1").get(0));
+        assertEquals(List.of(HAZARDOUS, "😴 Niveau de fatigue élevé (7.5/10). Prévoir des pauses régulières et rotation des équipes."),
+                catalog.decode("1,2"));
+    }
+}
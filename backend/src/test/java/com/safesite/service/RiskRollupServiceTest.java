@@ -0,0 +1,67 @@
+package com.safesite.service;
+
+import com.safesite.dto.ObservationRequest;
+import com.safesite.dto.RiskSeriesPoint;
+import com.safesite.repository.ObservationRepository;
+import com.safesite.repository.SiteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RiskRollupServiceTest {
+
+    @Autowired
+    private RiskRollupService riskRollupService;
+
+    @Autowired
+    private ObservationService observationService;
+
+    @Autowired
+    private ObservationRepository observationRepository;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Test
+    void rebuildMatchesLiveRollupsAndKeepsCountingAfterwards() {
+        Long siteId = siteRepository.findAll().get(0).getId();
+        for (int i = 0; i < 5; i++) {
+            observationService.createObservation(observation(siteId, 70.0 + i), null);
+        }
+        // Part of the live counts flushed, part still only in the ring
+        riskRollupService.flush();
+        observationService.createObservation(observation(siteId, 95.0), null);
+
+        long stored = observationRepository.findBySiteId(siteId).size();
+        assertEquals(stored, count(siteId));
+
+        riskRollupService.rebuild();
+        assertEquals(stored, count(siteId));
+
+        observationService.createObservation(observation(siteId, 60.0), null);
+        riskRollupService.flush();
+        assertEquals(stored + 1, count(siteId));
+    }
+
+    private long count(Long siteId) {
+        LocalDateTime now = LocalDateTime.now();
+        return riskRollupService.getRiskSeries(siteId, now.minusDays(1), now.plusHours(1), "hour").stream()
+                .mapToLong(RiskSeriesPoint::getCount)
+                .sum();
+    }
+
+    private static ObservationRequest observation(Long siteId, double epiCompliance) {
+        ObservationRequest request = new ObservationRequest();
+        request.setSiteId(siteId);
+        request.setEpiCompliance(epiCompliance);
+        request.setFatigue(4.0);
+        return request;
+    }
+}
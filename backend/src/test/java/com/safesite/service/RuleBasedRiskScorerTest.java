@@ -0,0 +1,152 @@
+package com.safesite.service;
+
+import com.safesite.dto.RiskFeatures;
+import com.safesite.dto.RiskPredictionResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parity with {@code ml_service/main.py}: thresholds are strict comparisons, a temperature of
+ * 0 is falsy in Python and skips both temperature rules, and values are quoted as Python's
+ * {@code str(float)} prints them.
+ */
+class RuleBasedRiskScorerTest {
+
+    private static final String OPTIMAL = "✅ Conditions de travail optimales. Continuer les bonnes pratiques.";
+    private static final String HOURS = "⏰ Heures de travail excessives. Limiter à 10h maximum.";
+    private static final String HAZARDOUS = "☢️ Présence de matériaux dangereux. Protocoles spéciaux requis.";
+
+    private final RuleBasedRiskScorer scorer = new RuleBasedRiskScorer();
+
+    @Test
+    void defaultsAreOptimal() {
+        assertPrediction(score(RiskFeatures.of(null, null, null, null, null, null, null, null)),
+                0, RuleBasedRiskScorer.LEVEL_LOW, OPTIMAL);
+    }
+
+    @Test
+    void epiComplianceOf85IsSufficient() {
+        assertPrediction(score(features(25.0, 85.0, 3.0, 8.0, false)),
+                0, RuleBasedRiskScorer.LEVEL_LOW, OPTIMAL);
+    }
+
+    @Test
+    void epiComplianceBelow85IsHighRisk() {
+        assertPrediction(score(features(25.0, 84.9, 3.0, 8.0, false)),
+                70, RuleBasedRiskScorer.LEVEL_HIGH,
+                "⚠️ Conformité EPI insuffisante (84.9%). Vérifier le port des équipements de protection.");
+    }
+
+    @Test
+    void fatigueOf6IsAcceptable() {
+        assertPrediction(score(features(25.0, 100.0, 6.0, 8.0, false)),
+                0, RuleBasedRiskScorer.LEVEL_LOW, OPTIMAL);
+    }
+
+    @Test
+    void fatigueAbove6IsHighRisk() {
+        assertPrediction(score(features(25.0, 100.0, 6.1, 8.0, false)),
+                70, RuleBasedRiskScorer.LEVEL_HIGH,
+                "😴 Niveau de fatigue élevé (6.1/10). Prévoir des pauses régulières et rotation des équipes.");
+    }
+
+    @Test
+    void temperatureOf35IsNotHot() {
+        assertPrediction(score(features(35.0, 100.0, 3.0, 8.0, false)),
+                0, RuleBasedRiskScorer.LEVEL_LOW, OPTIMAL);
+    }
+
+    @Test
+    void temperatureAbove35IsHot() {
+        assertPrediction(score(features(35.1, 100.0, 3.0, 8.0, false)),
+                15, RuleBasedRiskScorer.LEVEL_LOW,
+                "🌡️ Température élevée (35.1°C). Hydratation obligatoire et pauses à l'ombre.");
+    }
+
+    @Test
+    void temperatureOf5IsNotCold() {
+        assertPrediction(score(features(5.0, 100.0, 3.0, 8.0, false)),
+                0, RuleBasedRiskScorer.LEVEL_LOW, OPTIMAL);
+    }
+
+    @Test
+    void temperatureBelow5IsCold() {
+        assertPrediction(score(features(4.9, 100.0, 3.0, 8.0, false)),
+                10, RuleBasedRiskScorer.LEVEL_LOW,
+                "❄️ Température basse (4.9°C). Équipements chauds et vigilance accrue.");
+    }
+
+    @Test
+    void negativeTemperatureIsCold() {
+        assertPrediction(score(features(-2.0, 100.0, 3.0, 8.0, false)),
+                10, RuleBasedRiskScorer.LEVEL_LOW,
+                "❄️ Température basse (-2.0°C). Équipements chauds et vigilance accrue.");
+    }
+
+    @Test
+    void temperatureOfZeroIsFalsyAndSkipsTemperatureRules() {
+        assertPrediction(score(features(0.0, 100.0, 3.0, 8.0, false)),
+                0, RuleBasedRiskScorer.LEVEL_LOW, OPTIMAL);
+    }
+
+    @Test
+    void workingHoursOf10AreAcceptable() {
+        assertPrediction(score(features(25.0, 100.0, 3.0, 10.0, false)),
+                0, RuleBasedRiskScorer.LEVEL_LOW, OPTIMAL);
+    }
+
+    @Test
+    void workingHoursAbove10AreExcessive() {
+        assertPrediction(score(features(25.0, 100.0, 3.0, 10.5, false)),
+                10, RuleBasedRiskScorer.LEVEL_LOW, HOURS);
+    }
+
+    @Test
+    void secondaryFactorsAloneStayLowRisk() {
+        // 15 + 10 + 15 = 40: the MOYEN threshold (50) cannot be reached without EPI or fatigue
+        assertPrediction(score(features(36.0, 100.0, 3.0, 11.0, true)),
+                40, RuleBasedRiskScorer.LEVEL_LOW,
+                "🌡️ Température élevée (36.0°C). Hydratation obligatoire et pauses à l'ombre.",
+                HOURS,
+                HAZARDOUS);
+    }
+
+    @Test
+    void scoreIsCappedAt100() {
+        assertPrediction(score(features(36.0, 80.0, 7.5, 11.0, true)),
+                100, RuleBasedRiskScorer.LEVEL_HIGH,
+                "⚠️ Conformité EPI insuffisante (80.0%). Vérifier le port des équipements de protection.",
+                "😴 Niveau de fatigue élevé (7.5/10). Prévoir des pauses régulières et rotation des équipes.",
+                "🌡️ Température élevée (36.0°C). Hydratation obligatoire et pauses à l'ombre.",
+                HOURS,
+                HAZARDOUS);
+    }
+
+    @Test
+    void formatsFloatsLikePython() {
+        assertEquals("80.0", RuleBasedRiskScorer.formatFloat(80));
+        assertEquals("7.5", RuleBasedRiskScorer.formatFloat(7.5));
+        assertEquals("-2.0", RuleBasedRiskScorer.formatFloat(-2));
+        assertEquals("84.96", RuleBasedRiskScorer.formatFloat(84.96));
+    }
+
+    private RiskPredictionResponse score(RiskFeatures features) {
+        return scorer.score(features);
+    }
+
+    private static RiskFeatures features(double temperature, double epiCompliance, double fatigue,
+            double workingHours, boolean hazardousMaterials) {
+        return RiskFeatures.of(temperature, 50.0, epiCompliance, fatigue, workingHours, 10,
+                hazardousMaterials, "normal");
+    }
+
+    private static void assertPrediction(RiskPredictionResponse prediction, int riskScore, String riskLevel,
+            String... recommendations) {
+        assertEquals(riskScore, prediction.getRiskScore());
+        assertEquals(riskLevel, prediction.getRiskLevel());
+        assertEquals(List.of(recommendations), prediction.getRecommendations());
+    }
+}
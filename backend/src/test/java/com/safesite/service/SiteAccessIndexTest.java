@@ -0,0 +1,52 @@
+package com.safesite.service;
+
+import com.safesite.entity.Site;
+import com.safesite.repository.SiteRepository;
+import com.safesite.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SiteAccessIndexTest {
+
+    @Autowired
+    private SiteAccessIndex siteAccessIndex;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void appliesUpdatesOnlyOnceTheTransactionCommits() {
+        Site site = siteRepository.findAll().get(0);
+        Long projectId = site.getProject().getId();
+        Long chefId = userRepository.findByEmail("chef@safesite.ai").orElseThrow().getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            siteAccessIndex.onChefAssigned(chefId, projectId);
+            status.setRollbackOnly();
+        });
+        assertFalse(siteAccessIndex.canAccess(chefId, site.getId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            siteAccessIndex.onChefAssigned(chefId, projectId);
+            assertFalse(siteAccessIndex.canAccess(chefId, site.getId()));
+        });
+        assertTrue(siteAccessIndex.canAccess(chefId, site.getId()));
+
+        siteAccessIndex.onChefRemoved(chefId, projectId);
+        assertFalse(siteAccessIndex.canAccess(chefId, site.getId()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.safesite.service;
+
+import com.safesite.dto.ObservationRequest;
+import com.safesite.dto.SiteTrendResponse;
+import com.safesite.entity.Observation;
+import com.safesite.repository.ObservationRepository;
+import com.safesite.repository.SiteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SiteTrendServiceTest {
+
+    @Autowired
+    private SiteTrendService siteTrendService;
+
+    @Autowired
+    private ObservationService observationService;
+
+    @Autowired
+    private ObservationRepository observationRepository;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Test
+    void reloadRestoresCountAndLastUpdateFromTheData() {
+        Long siteId = siteRepository.findAll().get(0).getId();
+        for (int i = 0; i < 5; i++) {
+            ObservationRequest request = new ObservationRequest();
+            request.setSiteId(siteId);
+            request.setEpiCompliance(80.0 + i);
+            request.setFatigue(5.0);
+            observationService.createObservation(request, null);
+        }
+        List<Observation> stored = observationRepository.findBySiteId(siteId);
+        LocalDateTime lastCreatedAt = stored.stream()
+                .map(Observation::getCreatedAt)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+
+        siteTrendService.reload();
+
+        SiteTrendResponse trend = siteTrendService.getTrend(siteId);
+        // More observations than the replay window (app.trend.warmup-observations=3)
+        assertEquals(stored.size(), trend.getObservationCount());
+        assertEquals(lastCreatedAt, trend.getUpdatedAt());
+    }
+}